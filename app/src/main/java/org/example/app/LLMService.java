@@ -38,6 +38,7 @@ public class LLMService {
             3. 【重要】如果用户提到"随机权重"、"带权"或"权值为x"，必须在 DSL 中生成具体的 : w 部分。
             4. 【非常重要】顶点编号必须从 0 开始！例如 5 个点应该是 0,1,2,3,4。不要使用 1,2,3,4,5。
             5. 不要包含 markdown 代码块符号（如 ```）。
+            6. 如果用户明确要求有向图，在 DSL 第一行单独写 directed；否则边按无向图处理。
 
             情况2：如果用户是在打招呼、询问身份或其他闲聊（如"你是谁"、"你好"）
             请以 `[MSG]` 开头，后跟简短的回复文本。
@@ -1,24 +1,106 @@
 package org.example.core;
+
+import java.util.Arrays;
+
 public class AdjListGraph extends Graph{
-    private LinkedList[] mGraphList;
+    /** 默认的枢纽顶点度数阈值，超过后该顶点的邻接表切换为哈希表 */
+    public static final int DEFAULT_HUB_THRESHOLD = 1024;
+
+    private Adjacency[] mGraphList;
+    // 有向图的入邻接：第 v 行为指向 v 的起点及权重，删除顶点时按入度找到入边；无向图为 null。
+    // 只有本图使用，不与快照共享，不参与写时复制
+    private Adjacency[] mInList;
+    private final int hubThreshold;
+    // 写时复制：行的纪元落后于当前纪元，说明该行可能被快照共享，修改前要先复制
+    private int[] mRowEpoch;
+    private int mEpoch;
 
     public AdjListGraph(int numvertex) {
-        super(numvertex);
-        mGraphList = new LinkedList[numvertex];
+        this(numvertex, false);
+    }
+
+    /** directed 为 true 时 setEdge/delEdge 只作用于 from -> to 一个方向 */
+    public AdjListGraph(int numvertex, boolean directed) {
+        this(numvertex, directed, DEFAULT_HUB_THRESHOLD);
+    }
+
+    /**
+     * hubThreshold 为切换阈值：度数超过它的顶点改用哈希邻接表，
+     * 度数回落到一半以下时再转回有序数组；传 Integer.MAX_VALUE 可完全关闭哈希表。
+     */
+    public AdjListGraph(int numvertex, boolean directed, int hubThreshold) {
+        super(numvertex, directed);
+        if (hubThreshold < 1) {
+            throw new IllegalArgumentException("枢纽度数阈值必须为正数: " + hubThreshold);
+        }
+        this.hubThreshold = hubThreshold;
+        mRowEpoch = new int[numvertex];
+        mGraphList = new Adjacency[numvertex];
         for(int i = 0; i < numvertex; i ++)
         {
-            mGraphList[i] = new LinkedList() ;
+            mGraphList[i] = new SortedAdjacency();
+        }
+        if (directed) {
+            mInList = new Adjacency[numvertex];
+            for (int i = 0; i < numvertex; i++) {
+                mInList[i] = new SortedAdjacency();
+            }
+        }
+    }
+
+    /** 由 CSR 数组直接构造，供 GraphBuilder 批量建图使用；每行需已升序且无重复 */
+    AdjListGraph(int[] offsets, int[] targets, int[] weights, boolean directed) {
+        super(offsets.length - 1, directed);
+        this.hubThreshold = DEFAULT_HUB_THRESHOLD;
+        int n = offsets.length - 1;
+        mRowEpoch = new int[n];
+        mGraphList = new Adjacency[n];
+        for (int i = 0; i < n; i++) {
+            mGraphList[i] = new SortedAdjacency(targets, weights, offsets[i], offsets[i + 1] - offsets[i]);
+            if (mGraphList[i].size() > hubThreshold) {
+                mGraphList[i] = new HashAdjacency(mGraphList[i]);
+            }
+        }
+        if (directed) {
+            buildInLists(offsets, targets, weights);
+        }
+        rebuildStatistics(offsets, targets);
+    }
+
+    /** 把 CSR 按目标顶点转置成入邻接；按起点升序扫描，每行自然有序 */
+    private void buildInLists(int[] offsets, int[] targets, int[] weights) {
+        int n = offsets.length - 1;
+        int[] inOffsets = new int[n + 1];
+        for (int i = 0; i < offsets[n]; i++) {
+            inOffsets[targets[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] sources = new int[offsets[n]];
+        int[] inWeights = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int at = fill[targets[i]]++;
+                sources[at] = u;
+                inWeights[at] = weights[i];
+            }
+        }
+        mInList = new Adjacency[n];
+        for (int v = 0; v < n; v++) {
+            mInList[v] = new SortedAdjacency(sources, inWeights, inOffsets[v], inOffsets[v + 1] - inOffsets[v]);
+            if (mInList[v].size() > hubThreshold) {
+                mInList[v] = new HashAdjacency(mInList[v]);
+            }
         }
     }
 
     @Override
     public Edge firstEdge(int onevertex) {
-        Link temp = mGraphList[onevertex].getHead();
-        if (temp.getNext() != null) {
-            Edge edge = new Edge(onevertex,
-                    temp.getNext().getElement().getVertex(),
-                    temp.getNext().getElement().getWeight());
-            return edge;
+        Adjacency list = mGraphList[onevertex];
+        if (list.size() > 0) {
+            return new Edge(onevertex, list.target(0), list.weight(0));
         }
         return null; // 没有边
     }
@@ -27,112 +109,148 @@ public class AdjListGraph extends Graph{
     public Edge nextEdge(Edge pre) {
         if (pre == null) return null;
 
-        Link temp = mGraphList[pre.getMfrom()].getHead();
-        // 找到上一次 Edge 对应的节点
-        while (temp.getNext() != null && temp.getNext().getElement().getVertex() <= pre.getMto()) {
-            temp = temp.getNext();
+        Adjacency list = mGraphList[pre.getMfrom()];
+        // 二分定位上一次 Edge 之后的位置
+        int i = list.upperBound(pre.getMto());
+        if (i < list.size()) {
+            return new Edge(pre.getMfrom(), list.target(i), list.weight(i));
         }
+        return null; // 到邻接表末尾
+    }
 
-        if (temp.getNext() != null) {
-            Edge edge = new Edge(pre.getMfrom(),
-                    temp.getNext().getElement().getVertex(),
-                    temp.getNext().getElement().getWeight());
-            return edge;
-        } else {
-            return null; // 到链表末尾
-        }
+    @Override
+    public void forEachNeighbor(int onevertex, NeighborConsumer action) {
+        mGraphList[onevertex].forEach(action);
     }
 
     @Override
     public void setEdge(int from, int to, int weight) {
-        addSingleEdge(from,to,weight);
-        if(from != to)
+        checkLiveVertex(from);
+        checkLiveVertex(to);
+        putArc(from,to,weight);
+        if(from != to && !isDirected())
         {
-            addSingleEdge(to,from,weight);
+            putArc(to,from,weight);
         }
     }
 
     @Override
     public void delEdge(int from, int to) {
-        delSingleEdge(from,to);
-        if(from != to)
+        removeArc(from,to);
+        if(from != to && !isDirected())
         {
-            delSingleEdge(to,from);
+            removeArc(to,from);
         }
     }
 
 
     public void addSingleEdge(int from, int to, int weight) {
-        Link temp = mGraphList[from].getHead();
-        while(temp.getNext() != null && temp.getNext().getElement().getVertex() <to)
-        {
-            temp = temp.getNext();
-        }
-        if(temp.getNext() == null)
-        {
-            temp.setNext(new Link());
-            temp.getNext().getElement().setVertex(to);
-            temp.getNext().getElement().setWeight(weight);
-            incEdgeNumber();
-            incIndegree(to);
-            return;
-        }
-        if(temp.getNext().getElement().getVertex() == to)
-        {
-            temp.getNext().getElement().setWeight(weight);
-            return;
-        }
-        if(temp.getNext().getElement().getVertex() > to)
-        {
-            Link other = temp.getNext();
-            temp.setNext(new Link());
-            temp.getNext().getElement().setVertex(to);
-            temp.getNext().getElement().setWeight(weight);
-            temp.getNext().setNext(other);
-            incEdgeNumber();
-            incIndegree(to);
-            return;
-        }
+        putArc(from, to, weight);
     }
 
 
     public void delSingleEdge(int from, int to) {
-        Link temp = mGraphList[from].getHead();
-        while(temp.getNext() != null && temp.getNext().getElement().getVertex() < to)
-        {
-            temp = temp.getNext();
-        }
-        if(temp.getNext() == null)
-        {
-            return;
+        removeArc(from, to);
+    }
+
+    /**
+     * 写入一条有向邻接项。setEdge 和 addSingleEdge 都直接调用这里而不是可覆盖的公开方法，
+     * 这样加锁的子类在入口处加一次锁即可，不会在内部再次加锁。
+     */
+    final void putArc(int from, int to, int weight) {
+        Adjacency list = writableRow(from);
+        boolean added = list.put(to, weight);
+        mGraphList[from] = afterPut(list);
+        if (mInList != null) {
+            mInList[to].put(from, weight);
+            mInList[to] = afterPut(mInList[to]);
         }
-        if(temp.getNext().getElement().getVertex() > to)
-        {
-            return;
+        if (added) {
+            onArcAdded(from, to);
+        } else {
+            touch(); // 只改了权重
         }
-        if(temp.getNext().getElement().getVertex() == to )
-        {
-            Link other = temp.getNext().getNext();
-            temp.setNext(other);
-            decEdgeNumber();
-            decIndegree(to);
-            return;
+    }
+
+
+    /** 删除一条有向邻接项，与 putArc 同理不经过可覆盖的方法 */
+    final void removeArc(int from, int to) {
+        if (!mGraphList[from].contains(to)) return; // 不存在的边不触发复制
+        Adjacency list = writableRow(from);
+        if (list.remove(to)) {
+            mGraphList[from] = afterRemove(list);
+            if (mInList != null) {
+                mInList[to].remove(from);
+                mInList[to] = afterRemove(mInList[to]);
+            }
+            onArcRemoved(from, to);
         }
     }
 
+    /** 度数超过阈值的有序数组换成哈希表 */
+    private Adjacency afterPut(Adjacency list) {
+        return list.size() > hubThreshold && list instanceof SortedAdjacency ? new HashAdjacency(list) : list;
+    }
+
+    /** 度数回落到阈值一半以下的哈希表换回有序数组 */
+    private Adjacency afterRemove(Adjacency list) {
+        return list.size() < hubThreshold / 2 && list instanceof HashAdjacency ? new SortedAdjacency(list) : list;
+    }
+
+    /** 有向图直接读入邻接，O(入度) */
+    @Override
+    protected int[] inNeighbors(int v) {
+        if (mInList == null) return super.inNeighbors(v);
+        Adjacency list = mInList[v];
+        int[] sources = new int[list.size()];
+        int[] count = new int[1];
+        list.forEach((from, weight) -> sources[count[0]++] = from);
+        return sources;
+    }
+
     @Override
     public boolean isEdge(Edge edge) {
         if (edge == null) return false; // 空对象直接 false
+        return mGraphList[edge.getMfrom()].contains(edge.getMto());
+    }
 
-        int from = edge.getMfrom();
-        int to = edge.getMto();
-        Link temp = mGraphList[from].getHead();
+    /** 获取边的权重，边不存在时返回 0 */
+    public int getEdge(int from, int to) {
+        return mGraphList[from].weightOf(to);
+    }
 
-        while (temp.getNext() != null) {
-            if (temp.getNext().getElement().getVertex() == to) return true;
-            temp = temp.getNext();
+    /** 返回可以原地修改的邻接表，若该行仍与快照共享则先复制一份 */
+    private Adjacency writableRow(int v) {
+        if (mRowEpoch[v] != mEpoch) {
+            mGraphList[v] = mGraphList[v].copy();
+            mRowEpoch[v] = mEpoch;
         }
-        return false;
+        return mGraphList[v];
+    }
+
+    /**
+     * 生成当前时刻的只读快照，可交给 Dijkstra、kruskal、BFS、DFS 等算法在其他线程使用，
+     * 期间本图可以继续修改。快照只复制行引用数组（O(V)），之后哪一行被修改才复制哪一行；
+     * 快照不再被引用时，只属于它的旧行随之被垃圾回收。
+     */
+    public Graph snapshot() {
+        int n = verticesNumber();
+        int[] outs = new int[n];
+        int[] ins = new int[n];
+        for (int v = 0; v < n; v++) {
+            outs[v] = outDegree(v);
+            ins[v] = inDegree(v);
+        }
+        AdjListSnapshot snapshot = new AdjListSnapshot(Arrays.copyOf(mGraphList, n), isDirected());
+        snapshot.copyTombstonesFrom(this);
+        snapshot.rebuildStatistics(outs, ins, arcsNumber());
+        mEpoch++; // 此后所有现有行都视为共享
+        return snapshot;
+    }
+
+    /** 直接访问顶点的邻接表，供同包的并发包装类在持锁时使用 */
+    Adjacency adjacency(int v) {
+        return mGraphList[v];
     }
 
     @Override
@@ -150,56 +268,71 @@ public class AdjListGraph extends Graph{
         return edge.getMweight();
     }
 
+    /** 逻辑边数：无向边在邻接表中存了两次，有向边只存一次 */
     public int edgeNumbers(){
-        return super.edgesNumber() / 2;
+        return isDirected() ? edgesNumber() : edgesNumber() / 2;
     }
 
-    public Edge[] getAllEdge(){
-        int n = verticesNumber();
-        int totalEdges = edgeNumbers();
-        Edge[] allEdges = new Edge[totalEdges];
-        int index = 0;
-
-        for(int i = 0;i < n;i++)
-        {
-            for(Edge e = firstEdge(i);e != null;e = nextEdge(e))
-            {
-                int from = fromVertex(e);
-                int to = toVertex(e);
-                if(from < to){
-                    allEdges[index++] = e;
-                }
-            }
+    /** 重写addVertices方法，为新顶点创建空邻接表 */
+    @Override
+    public void addVertices(int count) {
+        int oldSize = verticesNumber();
+        super.addVertices(count); // 调用父类方法更新顶点数并按需扩容
+        for (int i = oldSize; i < verticesNumber(); i++) {
+            mGraphList[i] = new SortedAdjacency();
+            mRowEpoch[i] = mEpoch;
+            if (mInList != null) mInList[i] = new SortedAdjacency();
         }
+    }
 
-        if(index < totalEdges)
-        {
-            Edge[] trimmed = new Edge[index];
-            System.arraycopy(allEdges,0,trimmed,0,index);
-            return trimmed;
+    /** 邻接表数组与父类数组一起按两倍扩容 */
+    @Override
+    public void ensureVertexCapacity(int n) {
+        super.ensureVertexCapacity(n);
+        if (n > mGraphList.length) {
+            mGraphList = Arrays.copyOf(mGraphList, Math.max(n, mGraphList.length * 2));
+            mRowEpoch = Arrays.copyOf(mRowEpoch, mGraphList.length);
+            if (mInList != null) mInList = Arrays.copyOf(mInList, mGraphList.length);
         }
-        return  allEdges;
     }
     
-    /** 重写addVertex方法以扩展邻接表数组 */
+    /** 按压缩后的编号重建邻接表数组，并改写每个邻接表中的目标编号 */
     @Override
-    public void addVertex() {
-        super.addVertex(); // 调用父类方法更新顶点数
-        
-        int newSize = verticesNumber();
-        LinkedList[] newGraphList = new LinkedList[newSize];
-        
-        // 复制原有邻接表
-        for (int i = 0; i < mGraphList.length; i++) {
-            newGraphList[i] = mGraphList[i];
+    protected void compactStorage(int[] oldToNew, int newCount) {
+        Adjacency[] newGraphList = new Adjacency[newCount];
+        for (int v = 0; v < oldToNew.length; v++) {
+            if (oldToNew[v] >= 0) {
+                newGraphList[oldToNew[v]] = writableRow(v).relabel(oldToNew);
+            }
         }
-        
-        // 为新顶点创建新的链表
-        newGraphList[newSize - 1] = new LinkedList();
-        
         mGraphList = newGraphList;
+        if (mInList != null) {
+            Adjacency[] newInList = new Adjacency[newCount];
+            for (int v = 0; v < oldToNew.length; v++) {
+                if (oldToNew[v] >= 0) newInList[oldToNew[v]] = mInList[v].relabel(oldToNew);
+            }
+            mInList = newInList;
+        }
+        mRowEpoch = new int[newCount];
+        Arrays.fill(mRowEpoch, mEpoch);
     }
-    
+
+    /** 生成 CSR 格式的只读快照，供读多写少的算法使用 */
+    public CsrGraph toCsr() {
+        int n = verticesNumber();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + mGraphList[i].size();
+        }
+
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            mGraphList[i].copyTo(targets, weights, offsets[i]);
+        }
+        return new CsrGraph(offsets, targets, weights, isDirected());
+    }
+
     /** 获取邻接表的字符串表示 */
     public String getAdjListString() {
         StringBuilder sb = new StringBuilder();
@@ -207,12 +340,10 @@ public class AdjListGraph extends Graph{
         
         for (int i = 0; i < n; i++) {
             sb.append(i).append(": ");
-            Link current = mGraphList[i].getHead().getNext();
-            
-            while (current != null) {
-                sb.append("-> ").append(current.getElement().getVertex())
-                  .append("(").append(current.getElement().getWeight()).append(")");
-                current = current.getNext();
+            Adjacency list = mGraphList[i];
+            for (int j = 0; j < list.size(); j++) {
+                sb.append("-> ").append(list.target(j))
+                  .append("(").append(list.weight(j)).append(")");
             }
             sb.append("\n");
         }
@@ -224,41 +355,10 @@ public class AdjListGraph extends Graph{
     public void clearAllEdges() {
         int n = verticesNumber();
         for (int i = 0; i < n; i++) {
-            mGraphList[i] = new LinkedList();
-        }
-        // 重置边数
-        while (edgesNumber() > 0) {
-            decEdgeNumber();
-        }
-        // 重置入度 - 通过重新初始化图来实现
-        for (int i = 0; i < n; i++) {
-            // 入度会在添加边时自动更新，清空后所有入度都为0
-        }
-    }
-    
-    /** 随机生成连通图 */
-    public void generateRandomGraph() {
-        clearAllEdges(); // 先清空所有边
-        
-        int n = verticesNumber();
-        if (n <= 1) return;
-        
-        // 确保图连通：生成一个生成树
-        for (int i = 1; i < n; i++) {
-            int from = (int)(Math.random() * i);
-            int weight = (int)(Math.random() * 10) + 1; // 权重1-10
-            setEdge(from, i, weight);
-        }
-        
-        // 随机添加一些额外边
-        int extraEdges = (int)(Math.random() * (n * 2)) + n; // 额外边数：n到3n之间
-        for (int i = 0; i < extraEdges; i++) {
-            int from = (int)(Math.random() * n);
-            int to = (int)(Math.random() * n);
-            if (from != to) {
-                int weight = (int)(Math.random() * 10) + 1;
-                setEdge(from, to, weight);
-            }
+            mGraphList[i] = new SortedAdjacency();
+            mRowEpoch[i] = mEpoch;
+            if (mInList != null) mInList[i] = new SortedAdjacency();
         }
+        resetEdgeStatistics(); // 边数、出入度和直方图一并归零
     }
 }
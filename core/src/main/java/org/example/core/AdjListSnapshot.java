@@ -0,0 +1,66 @@
+package org.example.core;
+
+/**
+ * AdjListGraph 某一时刻的只读快照，与原图共享未被修改过的邻接表行。
+ * 原图修改某行前会先复制，因此快照看到的内容始终不变，可在其他线程上并发读取。
+ */
+final class AdjListSnapshot extends ReadOnlyGraph {
+    private final Adjacency[] rows;
+
+    /** 统计信息由 AdjListGraph.snapshot 随后通过 rebuildStatistics 填入 */
+    AdjListSnapshot(Adjacency[] rows, boolean directed) {
+        super(rows.length, directed);
+        this.rows = rows;
+    }
+
+    @Override
+    public Edge firstEdge(int onevertex) {
+        Adjacency list = rows[onevertex];
+        if (list.size() > 0) {
+            return new Edge(onevertex, list.target(0), list.weight(0));
+        }
+        return null; // 没有边
+    }
+
+    @Override
+    public Edge nextEdge(Edge pre) {
+        if (pre == null) return null;
+        Adjacency list = rows[pre.getMfrom()];
+        int i = list.upperBound(pre.getMto());
+        if (i < list.size()) {
+            return new Edge(pre.getMfrom(), list.target(i), list.weight(i));
+        }
+        return null;
+    }
+
+    @Override
+    public void forEachNeighbor(int onevertex, NeighborConsumer action) {
+        rows[onevertex].forEach(action);
+    }
+
+    @Override
+    public boolean isEdge(Edge edge) {
+        if (edge == null) return false;
+        return rows[edge.getMfrom()].contains(edge.getMto());
+    }
+
+    /** 获取边的权重，边不存在时返回 0 */
+    public int getEdge(int from, int to) {
+        return rows[from].weightOf(to);
+    }
+
+    @Override
+    public int fromVertex(Edge edge) {
+        return edge.getMfrom();
+    }
+
+    @Override
+    public int toVertex(Edge edge) {
+        return edge.getMto();
+    }
+
+    @Override
+    public int weight(Edge edge) {
+        return edge.getMweight();
+    }
+}
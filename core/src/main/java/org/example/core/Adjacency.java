@@ -0,0 +1,41 @@
+package org.example.core;
+
+/**
+ * 单个顶点邻接表的公共操作。
+ * target/weight/upperBound 按目标顶点升序的下标访问，供 firstEdge/nextEdge 和 CSR 导出使用；
+ * forEach 不保证顺序，由具体实现选择最快的遍历方式。
+ */
+abstract class Adjacency {
+    abstract int size();
+
+    abstract int target(int i);
+
+    abstract int weight(int i);
+
+    /** 第一个目标顶点大于 to 的下标 */
+    abstract int upperBound(int to);
+
+    abstract boolean contains(int to);
+
+    /** 边的权重，边不存在时返回 0 */
+    abstract int weightOf(int to);
+
+    /** 插入或更新一条边，返回是否为新增的边 */
+    abstract boolean put(int to, int weight);
+
+    /** 删除一条边，返回边是否存在 */
+    abstract boolean remove(int to);
+
+    abstract void clear();
+
+    abstract void forEach(NeighborConsumer action);
+
+    /** 按目标升序把邻接数据复制到 CSR 数组的 pos 位置 */
+    abstract void copyTo(int[] targetsOut, int[] weightsOut, int pos);
+
+    /** 复制一份独立的邻接表，用于快照的写时复制 */
+    abstract Adjacency copy();
+
+    /** 按 oldToNew 重写所有目标顶点编号，映射须保持相对顺序；可能原地修改并返回自身 */
+    abstract Adjacency relabel(int[] oldToNew);
+}
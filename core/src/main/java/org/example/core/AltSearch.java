@@ -0,0 +1,190 @@
+package org.example.core;
+
+import java.util.*;
+
+/**
+ * ALT 点对点最短路径：A* 搜索，估价为 LandmarkTable 给出的三角不等式下界。
+ * 下界满足一致性，顶点出堆时的距离就是最终值，终点出堆即可停止；路标选得好时搜索集中在起点和终点之间的狭长区域，
+ * 访问的顶点远少于 Dijkstra。返回的路径与 Dijkstra.findShortestPath 的约定相同。
+ * 每次查询只重置本次访问过的顶点；表与图不再匹配（图被修改过）时查询抛出 IllegalStateException。
+ */
+public class AltSearch {
+    /** 每次查询使用的路标数，取在起点处下界最大的几个；下界与使用全部路标相差不大，每个顶点的计算量却少得多 */
+    public static final int DEFAULT_ACTIVE_LANDMARKS = 8;
+
+    private final Graph graph;
+    private final LandmarkTable table;
+    private final int[] active;  // 本次查询使用的路标下标
+    private int activeCount;
+    private final int[] singleLandmark = new int[1];
+    private int[] dist;
+    private int[] prev;
+    private int[] bound; // 顶点到终点的下界，-1 表示本次查询还没算过
+    private IndexedDaryHeap heap;
+    private int[] touched = new int[64]; // 本次查询算过下界的顶点，查询结束后只重置这些
+    private int touchedCount;
+    private int target;
+    private int distance = Integer.MAX_VALUE;
+    private int settled;
+
+    private int current; // 正在展开的顶点，供 relax 使用
+    private final NeighborConsumer relaxer = this::relax;
+
+    public AltSearch(Graph graph, LandmarkTable table) {
+        this(graph, table, DEFAULT_ACTIVE_LANDMARKS);
+    }
+
+    /** activeLandmarks 为每次查询使用的路标数，不超过表中的路标数 */
+    public AltSearch(Graph graph, LandmarkTable table, int activeLandmarks) {
+        if (!table.isValidFor(graph)) {
+            throw new IllegalArgumentException("路标表与图不匹配");
+        }
+        if (activeLandmarks <= 0) {
+            throw new IllegalArgumentException("路标数必须为正: " + activeLandmarks);
+        }
+        this.graph = graph;
+        this.table = table;
+        this.active = new int[Math.min(activeLandmarks, table.size())];
+    }
+
+    public LandmarkTable getTable() {
+        return table;
+    }
+
+    /**
+     * 计算从 start 到 end 的最短路径
+     * @return 最短路径的顶点列表（包含 start 和 end），如果不可达或顶点不存在则返回空列表
+     */
+    public List<Integer> findShortestPath(int start, int end) {
+        if (!table.isValidFor(graph)) {
+            throw new IllegalStateException("图已修改，路标表需要重新计算");
+        }
+        int n = graph.verticesNumber();
+        List<Integer> path = new ArrayList<>();
+        distance = Integer.MAX_VALUE;
+        settled = 0;
+        if (start < 0 || start >= n || end < 0 || end >= n
+                || graph.isVertexRemoved(start) || graph.isVertexRemoved(end)) {
+            return path;
+        }
+        prepare(n);
+        try {
+            search(start, end);
+            if (distance == Integer.MAX_VALUE) return path;
+            for (int at = end; at != -1; at = prev[at]) {
+                path.add(at);
+            }
+            Collections.reverse(path);
+            return path;
+        } finally {
+            reset();
+        }
+    }
+
+    /** 上一次查询的最短距离，不可达时为 Integer.MAX_VALUE */
+    public int getShortestDistance() {
+        return distance;
+    }
+
+    /** 上一次查询出堆的顶点数，用来和 Dijkstra 比较 */
+    public int settledCount() {
+        return settled;
+    }
+
+    private void search(int start, int end) {
+        target = end;
+        chooseLandmarks(start, end);
+        int h = estimate(start);
+        if (h == LandmarkTable.UNREACHABLE) return; // 下界已说明不可达
+        dist[start] = 0;
+        heap.insert(start, h);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled++;
+            if (u == end) {
+                distance = dist[end];
+                return;
+            }
+            current = u;
+            graph.forEachNeighbor(u, relaxer);
+        }
+    }
+
+    private void relax(int v, int weight) {
+        int u = current;
+        long d = (long) dist[u] + weight;
+        if (d >= dist[v]) return;
+        int h = estimate(v);
+        if (h == LandmarkTable.UNREACHABLE) return; // v 到不了终点，不必入堆
+        dist[v] = (int) d;
+        prev[v] = u;
+        heap.insertOrDecrease(v, d + h);
+    }
+
+    /** 顶点 v 的下界，每次查询每个顶点只算一次 */
+    private int estimate(int v) {
+        int h = bound[v];
+        if (h < 0) {
+            h = table.lowerBound(v, target, active, activeCount);
+            bound[v] = h;
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = v;
+        }
+        return h;
+    }
+
+    /** 按起点处的下界从大到小选出本次查询使用的路标 */
+    private void chooseLandmarks(int start, int end) {
+        activeCount = 0;
+        int k = table.size();
+        if (active.length == k) {
+            for (int i = 0; i < k; i++) active[activeCount++] = i;
+            return;
+        }
+        int[] score = new int[active.length];
+        for (int i = 0; i < k; i++) {
+            singleLandmark[0] = i;
+            int b = table.lowerBound(start, end, singleLandmark, 1);
+            // 插入排序，保留下界最大的 active.length 个
+            int j = activeCount < active.length ? activeCount++ : active.length;
+            while (j > 0 && score[j - 1] < b) {
+                if (j < active.length) {
+                    score[j] = score[j - 1];
+                    active[j] = active[j - 1];
+                }
+                j--;
+            }
+            if (j < active.length) {
+                score[j] = b;
+                active[j] = i;
+            }
+        }
+    }
+
+    /** 顶点数变化时重新分配数组 */
+    private void prepare(int n) {
+        if (dist == null || dist.length != n) {
+            dist = new int[n];
+            prev = new int[n];
+            bound = new int[n];
+            heap = new IndexedDaryHeap(n);
+            Arrays.fill(dist, Integer.MAX_VALUE);
+            Arrays.fill(prev, -1);
+            Arrays.fill(bound, -1);
+        }
+    }
+
+    /** 恢复本次查询改动过的顶点，数组回到初始状态 */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            dist[v] = Integer.MAX_VALUE;
+            prev[v] = -1;
+            bound[v] = -1;
+        }
+        touchedCount = 0;
+        heap.clear();
+    }
+}
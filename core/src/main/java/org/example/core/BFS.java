@@ -6,12 +6,12 @@ import java.util.Queue;
 
 public class BFS {
    private Queue<Integer> queue = new ArrayDeque<>();
-   private AdjListGraph graph;
+   private Graph graph;
    private boolean[] visited;
    private List<Integer> traversalOrder;
    private List<TraversalStep> steps; // 记录动画步骤
 
-    public BFS(AdjListGraph graph) {
+    public BFS(Graph graph) {
         this.graph = graph;
         visited = new boolean[graph.verticesNumber()];
         traversalOrder = new ArrayList<>();
@@ -27,13 +27,13 @@ public class BFS {
         int numVertices = graph.verticesNumber();
         
         // 1. 先从用户指定的起点开始遍历 (如果合法)
-        if (startVertex >= 0 && startVertex < numVertices) {
+        if (startVertex >= 0 && startVertex < numVertices && !graph.isVertexRemoved(startVertex)) {
             broadFirstSearch(startVertex);
         }
         
         // 2. [核心修改] 检查是否还有未访问的孤立节点/连通分量
         for (int i = 0; i < numVertices; i++) {
-            if (!visited[i]) {
+            if (!visited[i] && !graph.isVertexRemoved(i)) {
                 // 发现新的未访问节点，说明是另一个连通分量
                 broadFirstSearch(i);
             }
@@ -51,16 +51,15 @@ public class BFS {
              // 记录: 正式访问 u (变色)
              steps.add(new TraversalStep(TraversalStep.Type.VISIT, u)); 
              
-             for(Edge e = graph.firstEdge(u); e != null; e = graph.nextEdge(e)) {
-                 int w = graph.toVertex(e);
+             graph.forEachNeighbor(u, (w, weight) -> {
                  if(!visited[w]) {
                      visited[w] = true;
                      queue.add(w);
                      
-                     // 记录: 发现邻居 w，通过边 e (扩散效果: 边变色)
-                     steps.add(new TraversalStep(TraversalStep.Type.VISIT_EDGE, e));
+                     // 记录: 发现邻居 w，通过边 u-w (扩散效果: 边变色)
+                     steps.add(new TraversalStep(TraversalStep.Type.VISIT_EDGE, new Edge(u, w, weight)));
                  }
-             }
+             });
          }
     }
     
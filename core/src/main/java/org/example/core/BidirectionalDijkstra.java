@@ -0,0 +1,194 @@
+package org.example.core;
+
+import java.util.*;
+
+/**
+ * 点对点最短路径的双向 Dijkstra：从起点沿出边、从终点沿入边同时扩展，两侧堆顶距离之和
+ * 不小于已知最短路径长度时停止。两侧各自只需探索约一半半径的范围，大图上访问的顶点远少于单向搜索。
+ * 返回的路径与 Dijkstra.findShortestPath 的约定相同。
+ * 有向图的反向搜索需要入边，第一次查询时扫描整个图建立反向邻接表，图的版本号变化后自动重建；
+ * 无向图直接用原图。每次查询只重置本次访问过的顶点，不随图的规模做 O(V) 初始化。
+ */
+public class BidirectionalDijkstra {
+    private final Graph graph;
+    private int[] distF, distB;    // 两个方向的暂定距离，未到达为 Integer.MAX_VALUE
+    private int[] prevF, prevB;    // 正向为前驱，反向为后继
+    private boolean[] doneF, doneB;
+    private IndexedDaryHeap heapF, heapB;
+    private int[] touched = new int[64]; // 本次查询中距离被改过的顶点，查询结束后只重置这些
+    private int touchedCount;
+    private long best;  // 目前找到的最短路径长度
+    private int meet;   // 最短路径上两侧相接的顶点
+    private int settled;
+
+    // 有向图的反向邻接表，inTargets 中存放入边的起点
+    private int[] inOffsets, inTargets, inWeights;
+    private long inVersion = -1;
+
+    private int current; // 正在展开的顶点，供 relax 使用
+    private final NeighborConsumer forwardRelaxer = this::relaxForward;
+    private final NeighborConsumer backwardRelaxer = this::relaxBackward;
+
+    public BidirectionalDijkstra(Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * 计算从 start 到 end 的最短路径
+     * @return 最短路径的顶点列表（包含 start 和 end），如果不可达或顶点不存在则返回空列表
+     */
+    public List<Integer> findShortestPath(int start, int end) {
+        int n = graph.verticesNumber();
+        List<Integer> path = new ArrayList<>();
+        best = Long.MAX_VALUE;
+        settled = 0;
+        if (start < 0 || start >= n || end < 0 || end >= n
+                || graph.isVertexRemoved(start) || graph.isVertexRemoved(end)) {
+            return path;
+        }
+        prepare(n);
+        try {
+            search(start, end);
+            if (best == Long.MAX_VALUE) return path;
+            for (int at = meet; at != -1; at = prevF[at]) {
+                path.add(at);
+            }
+            Collections.reverse(path);
+            for (int at = prevB[meet]; at != -1; at = prevB[at]) {
+                path.add(at);
+            }
+            return path;
+        } finally {
+            reset();
+        }
+    }
+
+    /** 上一次查询的最短距离，不可达时为 Integer.MAX_VALUE */
+    public int getShortestDistance() {
+        return best == Long.MAX_VALUE ? Integer.MAX_VALUE : (int) best;
+    }
+
+    /** 上一次查询两侧共确定了多少个顶点，用来和单向搜索比较 */
+    public int settledCount() {
+        return settled;
+    }
+
+    private void search(int start, int end) {
+        distF[start] = 0;
+        distB[end] = 0;
+        touch(start);
+        touch(end);
+        heapF.insert(start, 0);
+        heapB.insert(end, 0);
+        if (start == end) {
+            best = 0;
+            meet = start;
+            return;
+        }
+        while (!heapF.isEmpty() && !heapB.isEmpty()) {
+            // 任何尚未发现的更短路径，两侧的部分都不短于各自的堆顶距离
+            if (heapF.peekKey() + heapB.peekKey() >= best) break;
+            // 先展开堆较小的一侧，两侧探索的顶点数保持接近
+            if (heapF.size() <= heapB.size()) {
+                int u = heapF.poll();
+                doneF[u] = true;
+                settled++;
+                current = u;
+                graph.forEachNeighbor(u, forwardRelaxer);
+            } else {
+                int u = heapB.poll();
+                doneB[u] = true;
+                settled++;
+                current = u;
+                if (graph.isDirected()) {
+                    for (int i = inOffsets[u], e = inOffsets[u + 1]; i < e; i++) {
+                        relaxBackward(inTargets[i], inWeights[i]);
+                    }
+                } else {
+                    graph.forEachNeighbor(u, backwardRelaxer);
+                }
+            }
+        }
+    }
+
+    private void relaxForward(int v, int weight) {
+        int u = current;
+        if (doneF[v]) return;
+        long d = (long) distF[u] + weight;
+        if (d < distF[v]) {
+            if (distF[v] == Integer.MAX_VALUE && distB[v] == Integer.MAX_VALUE) touch(v);
+            distF[v] = (int) d;
+            prevF[v] = u;
+            heapF.insertOrDecrease(v, d);
+        }
+        if (distB[v] != Integer.MAX_VALUE && d + distB[v] < best) {
+            best = d + distB[v];
+            meet = v;
+        }
+    }
+
+    private void relaxBackward(int v, int weight) {
+        int u = current;
+        if (doneB[v]) return;
+        long d = (long) distB[u] + weight;
+        if (d < distB[v]) {
+            if (distF[v] == Integer.MAX_VALUE && distB[v] == Integer.MAX_VALUE) touch(v);
+            distB[v] = (int) d;
+            prevB[v] = u;
+            heapB.insertOrDecrease(v, d);
+        }
+        if (distF[v] != Integer.MAX_VALUE && d + distF[v] < best) {
+            best = d + distF[v];
+            meet = v;
+        }
+    }
+
+    private void touch(int v) {
+        if (touchedCount == touched.length) {
+            touched = Arrays.copyOf(touched, touchedCount * 2);
+        }
+        touched[touchedCount++] = v;
+    }
+
+    /** 顶点数变化时重新分配数组；有向图的反向邻接表随图的版本号重建 */
+    private void prepare(int n) {
+        if (distF == null || distF.length != n) {
+            distF = new int[n];
+            distB = new int[n];
+            prevF = new int[n];
+            prevB = new int[n];
+            doneF = new boolean[n];
+            doneB = new boolean[n];
+            heapF = new IndexedDaryHeap(n);
+            heapB = new IndexedDaryHeap(n);
+            Arrays.fill(distF, Integer.MAX_VALUE);
+            Arrays.fill(distB, Integer.MAX_VALUE);
+            Arrays.fill(prevF, -1);
+            Arrays.fill(prevB, -1);
+            inVersion = -1;
+        }
+        if (graph.isDirected() && inVersion != graph.version()) {
+            CsrGraph reverse = CsrGraph.reverseOf(graph);
+            inOffsets = reverse.offsets();
+            inTargets = reverse.targets();
+            inWeights = reverse.weights();
+            inVersion = graph.version();
+        }
+    }
+
+    /** 恢复本次查询改动过的顶点，数组回到全部未到达的状态 */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distF[v] = Integer.MAX_VALUE;
+            distB[v] = Integer.MAX_VALUE;
+            prevF[v] = -1;
+            prevB[v] = -1;
+            doneF[v] = false;
+            doneB[v] = false;
+        }
+        touchedCount = 0;
+        heapF.clear();
+        heapB.clear();
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * 压缩存储的只读图，适合内存放不下 CSR 的大图。
+ * 每个顶点的有序邻接表编码为一段字节：先是变长整数(varint)表示的度数，
+ * 然后是每 SKIP 个邻居一项的跳跃指针表，最后依次是各邻居的目标差值和权重，均用 varint 编码
+ * （目标取与前一个目标的间隔减一；图中存在负权重时，权重先做 zigzag 变换，否则直接编码）。
+ * 顺序遍历逐字节解码；按目标定位时先二分跳跃指针表，再在一个块内最多解码 SKIP 项。
+ */
+public class CompressedGraph extends ReadOnlyGraph {
+    /** 每隔多少个邻居记录一个跳跃指针 */
+    static final int SKIP = 64;
+    private static final int SKIP_ENTRY_BYTES = 8; // 前一个目标 + 块起始的行内字节偏移，各 4 字节
+
+    private final byte[] data;
+    private final int[] offsets; // 顶点 v 的编码从 data[offsets[v]] 开始
+    private final boolean signedWeights;
+
+    private CompressedGraph(int numvertex, boolean directed, byte[] data, int[] offsets, boolean signedWeights) {
+        super(numvertex, directed);
+        this.data = data;
+        this.offsets = offsets;
+        this.signedWeights = signedWeights;
+    }
+
+    /** 压缩一个 CSR 图 */
+    public static CompressedGraph of(CsrGraph graph) {
+        int[] csrOffsets = graph.offsets();
+        int n = csrOffsets.length - 1;
+        boolean signed = false;
+        for (int w : graph.weights()) {
+            signed |= w < 0;
+        }
+        Encoder encoder = new Encoder(n, graph.targets().length, signed);
+        for (int v = 0; v < n; v++) {
+            encoder.row(v, graph.targets(), graph.weights(), csrOffsets[v], csrOffsets[v + 1] - csrOffsets[v]);
+        }
+        return encoder.finish(graph);
+    }
+
+    /** 按行压缩邻接表图，不经过完整的 CSR 中间结果 */
+    public static CompressedGraph of(AdjListGraph graph) {
+        int n = graph.verticesNumber();
+        boolean[] signed = new boolean[1];
+        for (int v = 0; v < n && !signed[0]; v++) {
+            graph.adjacency(v).forEach((to, weight) -> signed[0] |= weight < 0);
+        }
+        Encoder encoder = new Encoder(n, graph.edgesNumber(), signed[0]);
+        int[] targets = new int[16];
+        int[] weights = new int[16];
+        for (int v = 0; v < n; v++) {
+            Adjacency row = graph.adjacency(v);
+            if (row.size() > targets.length) {
+                targets = new int[Math.max(row.size(), targets.length * 2)];
+                weights = new int[targets.length];
+            }
+            row.copyTo(targets, weights, 0);
+            encoder.row(v, targets, weights, 0, row.size());
+        }
+        return encoder.finish(graph);
+    }
+
+    /** 编码后占用的字节数（数据加偏移数组），用于和 CSR 比较 */
+    public long sizeInBytes() {
+        return data.length + (long) offsets.length * Integer.BYTES;
+    }
+
+    /** 逐行编码，同时统计出入度 */
+    private static final class Encoder {
+        private byte[] buffer;
+        private int size;
+        private final int[] offsets;
+        private final int[] outDegree;
+        private final int[] inDegree;
+        private int arcs;
+        private final boolean signedWeights;
+
+        Encoder(int n, int expectedArcs, boolean signedWeights) {
+            this.signedWeights = signedWeights;
+            buffer = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, n + expectedArcs * 2L))];
+            offsets = new int[n + 1];
+            outDegree = new int[n];
+            inDegree = new int[n];
+        }
+
+        void row(int v, int[] targets, int[] weights, int from, int degree) {
+            int rowStart = size;
+            offsets[v] = rowStart;
+            outDegree[v] = degree;
+            arcs += degree;
+            writeVarint(degree);
+            int skips = degree == 0 ? 0 : (degree - 1) / SKIP;
+            int skipTable = size;
+            ensure(skips * SKIP_ENTRY_BYTES);
+            size += skips * SKIP_ENTRY_BYTES; // 先占位，编码到块起点时回填
+
+            int prev = -1;
+            for (int i = 0; i < degree; i++) {
+                int target = targets[from + i];
+                if (i > 0 && i % SKIP == 0) {
+                    int entry = skipTable + (i / SKIP - 1) * SKIP_ENTRY_BYTES;
+                    putInt(entry, prev);
+                    putInt(entry + 4, size - rowStart);
+                }
+                writeVarint(target - prev - 1);
+                int weight = weights[from + i];
+                writeVarint(signedWeights ? (weight << 1) ^ (weight >> 31) : weight);
+                inDegree[target]++;
+                prev = target;
+            }
+            offsets[v + 1] = size;
+        }
+
+        CompressedGraph finish(Graph source) {
+            CompressedGraph graph = new CompressedGraph(offsets.length - 1, source.isDirected(),
+                    Arrays.copyOf(buffer, size), offsets, signedWeights);
+            graph.copyTombstonesFrom(source);
+            graph.rebuildStatistics(outDegree, inDegree, arcs);
+            return graph;
+        }
+
+        private void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void putInt(int pos, int value) {
+            buffer[pos] = (byte) value;
+            buffer[pos + 1] = (byte) (value >>> 8);
+            buffer[pos + 2] = (byte) (value >>> 16);
+            buffer[pos + 3] = (byte) (value >>> 24);
+        }
+
+        private void ensure(int extra) {
+            if ((long) size + extra > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("压缩后的数据超过单个数组的容量上限");
+            }
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max(size + extra, buffer.length * 2L)));
+            }
+        }
+    }
+
+    /** 单行解码游标：next() 每次解出一个邻居，供 firstEdge/nextEdge 和按目标定位使用 */
+    private final class RowCursor {
+        private int pos;
+        private int remaining;
+        private final int rowStart;
+        private final int skipTable;
+        private final int skips;
+        private final int degree;
+        int target = -1;
+        int weight;
+
+        RowCursor(int v) {
+            rowStart = offsets[v];
+            pos = rowStart;
+            degree = readVarint();
+            remaining = degree;
+            skips = degree == 0 ? 0 : (degree - 1) / SKIP;
+            skipTable = pos;
+            pos += skips * SKIP_ENTRY_BYTES;
+        }
+
+        boolean next() {
+            if (remaining == 0) return false;
+            target += readVarint() + 1;
+            int raw = readVarint();
+            weight = signedWeights ? (raw >>> 1) ^ -(raw & 1) : raw;
+            remaining--;
+            return true;
+        }
+
+        /** 定位到第一个目标大于 to 的邻居之前，之后调用 next() 即得到该邻居 */
+        void seekAfter(int to) {
+            // 二分找最后一个“前一目标”不超过 to 的块
+            int lo = 0;
+            int hi = skips;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (getInt(skipTable + (mid - 1) * SKIP_ENTRY_BYTES) <= to) lo = mid;
+                else hi = mid - 1;
+            }
+            if (lo > 0) {
+                int entry = skipTable + (lo - 1) * SKIP_ENTRY_BYTES;
+                target = getInt(entry);
+                pos = rowStart + getInt(entry + 4);
+                remaining = degree - lo * SKIP;
+            }
+            // 块内顺序解码，回退到目标不超过 to 的最后位置
+            while (remaining > 0) {
+                int savedPos = pos;
+                int savedTarget = target;
+                int savedWeight = weight;
+                next();
+                if (target > to) {
+                    pos = savedPos;
+                    target = savedTarget;
+                    weight = savedWeight;
+                    remaining++;
+                    return;
+                }
+            }
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+    }
+
+    private int getInt(int pos) {
+        return (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8
+                | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+    }
+
+    @Override
+    public Edge firstEdge(int onevertex) {
+        RowCursor cursor = new RowCursor(onevertex);
+        if (cursor.next()) {
+            return new Edge(onevertex, cursor.target, cursor.weight);
+        }
+        return null; // 没有边
+    }
+
+    @Override
+    public Edge nextEdge(Edge pre) {
+        if (pre == null) return null;
+        RowCursor cursor = new RowCursor(pre.getMfrom());
+        cursor.seekAfter(pre.getMto());
+        if (cursor.next()) {
+            return new Edge(pre.getMfrom(), cursor.target, cursor.weight);
+        }
+        return null;
+    }
+
+    /**
+     * 用局部变量直接解码整行，不创建 RowCursor：Dijkstra、BFS 等对每个出队顶点调用一次，遍历过程不分配对象。
+     * 顺序遍历用不到跳跃指针表，直接跳过。
+     */
+    @Override
+    public void forEachNeighbor(int onevertex, NeighborConsumer action) {
+        byte[] data = this.data;
+        int pos = offsets[onevertex];
+        int degree = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[pos++];
+            degree |= (b & 0x7F) << shift;
+            if (b >= 0) break;
+        }
+        if (degree == 0) return;
+        pos += (degree - 1) / SKIP * SKIP_ENTRY_BYTES;
+        int target = -1;
+        for (int i = 0; i < degree; i++) {
+            int gap = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[pos++];
+                gap |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            int raw = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[pos++];
+                raw |= (b & 0x7F) << shift;
+                if (b >= 0) break;
+            }
+            target += gap + 1;
+            action.accept(target, signedWeights ? (raw >>> 1) ^ -(raw & 1) : raw);
+        }
+    }
+
+    @Override
+    public boolean isEdge(Edge edge) {
+        if (edge == null) return false;
+        return locate(edge.getMfrom(), edge.getMto()) != null;
+    }
+
+    /** 获取边的权重，边不存在时返回 0 */
+    public int getEdge(int from, int to) {
+        RowCursor cursor = locate(from, to);
+        return cursor != null ? cursor.weight : 0;
+    }
+
+    /** 返回停在 from -> to 上的游标，边不存在时返回 null */
+    private RowCursor locate(int from, int to) {
+        RowCursor cursor = new RowCursor(from);
+        cursor.seekAfter(to - 1);
+        return cursor.next() && cursor.target == to ? cursor : null;
+    }
+
+    @Override
+    public int fromVertex(Edge edge) {
+        return edge.getMfrom();
+    }
+
+    @Override
+    public int toVertex(Edge edge) {
+        return edge.getMto();
+    }
+
+    @Override
+    public int weight(Edge edge) {
+        return edge.getMweight();
+    }
+}
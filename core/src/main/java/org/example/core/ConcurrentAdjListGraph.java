@@ -0,0 +1,429 @@
+package org.example.core;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 线程安全的邻接表图，允许多个线程并行 setEdge/delEdge。
+ * 顶点编号按掩码映射到固定数量的条带锁上，修改边时锁住两个端点所在的条带（有向图要同时改终点的入邻接），
+ * 总是按条带编号从小到大加锁，避免死锁；边数和出入度用 LongAdder/原子数组统计，
+ * 最大度数和度数直方图在查询时持写锁扫描得到（O(V)）。
+ * <p>
+ * 条带锁只保护各行的内容，而增删顶点、扩容、压缩、清空和快照会整体替换或重排行数组、入邻接数组和度数数组，
+ * 这些操作与边操作下标访问的是同一批数组，所以另设一把全局读写锁：结构性操作持写锁，边操作持读锁，
+ * 保证边操作不会写进已被替换的旧数组。每个公开的边操作只在入口处取一次读锁和一次条带锁，
+ * 内部经 AdjListGraph 的 putArc/removeArc 写入，不再经过本类覆盖的方法重复加锁。
+ */
+public class ConcurrentAdjListGraph extends AdjListGraph {
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+    private final LongAdder edgeCount = new LongAdder();
+    private final AtomicLong version = new AtomicLong();
+    private volatile AtomicIntegerArray indegrees;  // 只在写锁下替换
+    private volatile AtomicIntegerArray outdegrees; // 只在写锁下替换
+
+    public ConcurrentAdjListGraph(int numvertex) {
+        this(numvertex, false);
+    }
+
+    public ConcurrentAdjListGraph(int numvertex, boolean directed) {
+        this(numvertex, directed, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /** stripeCount 为条带锁个数，会向上取整到 2 的幂 */
+    public ConcurrentAdjListGraph(int numvertex, boolean directed, int stripeCount) {
+        super(numvertex, directed);
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("条带锁个数必须为正数: " + stripeCount);
+        }
+        int size = Integer.highestOneBit(Math.min(stripeCount, 1 << 16) * 2 - 1);
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        stripeMask = size - 1;
+        indegrees = new AtomicIntegerArray(numvertex);
+        outdegrees = new AtomicIntegerArray(numvertex);
+    }
+
+    private ReentrantLock stripe(int v) {
+        return stripes[v & stripeMask];
+    }
+
+    /** 按条带编号升序锁住两个端点，同一条带只锁一次 */
+    private void lockPair(int a, int b) {
+        int sa = a & stripeMask;
+        int sb = b & stripeMask;
+        if (sa == sb) {
+            stripes[sa].lock();
+        } else {
+            stripes[Math.min(sa, sb)].lock();
+            stripes[Math.max(sa, sb)].lock();
+        }
+    }
+
+    private void unlockPair(int a, int b) {
+        int sa = a & stripeMask;
+        int sb = b & stripeMask;
+        stripes[sa].unlock();
+        if (sa != sb) {
+            stripes[sb].unlock();
+        }
+    }
+
+    @Override
+    public void setEdge(int from, int to, int weight) {
+        structureLock.readLock().lock();
+        try {
+            lockPair(from, to); // 有向图也会改 to 的入邻接
+            try {
+                super.setEdge(from, to, weight);
+            } finally {
+                unlockPair(from, to);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void delEdge(int from, int to) {
+        structureLock.readLock().lock();
+        try {
+            lockPair(from, to); // 有向图也会改 to 的入邻接
+            try {
+                super.delEdge(from, to);
+            } finally {
+                unlockPair(from, to);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addSingleEdge(int from, int to, int weight) {
+        structureLock.readLock().lock();
+        try {
+            lockPair(from, to);
+            try {
+                putArc(from, to, weight);
+            } finally {
+                unlockPair(from, to);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void delSingleEdge(int from, int to) {
+        structureLock.readLock().lock();
+        try {
+            lockPair(from, to);
+            try {
+                removeArc(from, to);
+            } finally {
+                unlockPair(from, to);
+            }
+        } finally {
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Edge firstEdge(int onevertex) {
+        structureLock.readLock().lock();
+        ReentrantLock lock = stripe(onevertex);
+        lock.lock();
+        try {
+            return super.firstEdge(onevertex);
+        } finally {
+            lock.unlock();
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Edge nextEdge(Edge pre) {
+        if (pre == null) return null;
+        structureLock.readLock().lock();
+        ReentrantLock lock = stripe(pre.getMfrom());
+        lock.lock();
+        try {
+            return super.nextEdge(pre);
+        } finally {
+            lock.unlock();
+            structureLock.readLock().unlock();
+        }
+    }
+
+    /** 持锁复制一份邻接数据后再回调，回调中可以安全地修改图 */
+    @Override
+    public void forEachNeighbor(int onevertex, NeighborConsumer action) {
+        int[] targets;
+        int[] weights;
+        structureLock.readLock().lock();
+        ReentrantLock lock = stripe(onevertex);
+        lock.lock();
+        try {
+            Adjacency list = adjacency(onevertex);
+            targets = new int[list.size()];
+            weights = new int[list.size()];
+            list.copyTo(targets, weights, 0);
+        } finally {
+            lock.unlock();
+            structureLock.readLock().unlock();
+        }
+        for (int i = 0; i < targets.length; i++) {
+            action.accept(targets[i], weights[i]);
+        }
+    }
+
+    @Override
+    public boolean isEdge(Edge edge) {
+        if (edge == null) return false;
+        structureLock.readLock().lock();
+        ReentrantLock lock = stripe(edge.getMfrom());
+        lock.lock();
+        try {
+            return super.isEdge(edge);
+        } finally {
+            lock.unlock();
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getEdge(int from, int to) {
+        structureLock.readLock().lock();
+        ReentrantLock lock = stripe(from);
+        lock.lock();
+        try {
+            return super.getEdge(from, to);
+        } finally {
+            lock.unlock();
+            structureLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected int arcsNumber() {
+        return (int) edgeCount.sum();
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    protected void touch() {
+        version.incrementAndGet();
+    }
+
+    @Override
+    protected void onArcAdded(int from, int to) {
+        touch();
+        edgeCount.increment();
+        outdegrees.incrementAndGet(from);
+        indegrees.incrementAndGet(to);
+    }
+
+    @Override
+    protected void onArcRemoved(int from, int to) {
+        touch();
+        edgeCount.decrement();
+        outdegrees.decrementAndGet(from);
+        indegrees.decrementAndGet(to);
+    }
+
+    /** 调用方（clearAllEdges）已持有写锁 */
+    @Override
+    protected void resetEdgeStatistics() {
+        touch();
+        edgeCount.reset();
+        indegrees = new AtomicIntegerArray(indegrees.length());
+        outdegrees = new AtomicIntegerArray(outdegrees.length());
+    }
+
+    /**
+     * 度数查询不取全局锁：数组引用是 volatile 的，扩容和压缩在写锁下先算好新数组再发布，
+     * 读到旧数组时得到的也是替换前某一时刻的准确值。
+     */
+    @Override
+    public int inDegree(int v) {
+        return indegrees.get(v);
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return outdegrees.get(v);
+    }
+
+    @Override
+    public int maxDegree() {
+        return degreeHistogram().length - 1;
+    }
+
+    /** 并发更新下不增量维护直方图，持写锁扫描一遍得到一致的结果 */
+    @Override
+    public int[] degreeHistogram() {
+        structureLock.writeLock().lock();
+        try {
+            int n = verticesNumber();
+            int max = 0;
+            for (int v = 0; v < n; v++) {
+                if (!isVertexRemoved(v)) max = Math.max(max, degree(v));
+            }
+            int[] histogram = new int[max + 1];
+            for (int v = 0; v < n; v++) {
+                if (!isVertexRemoved(v)) histogram[degree(v)]++;
+            }
+            return histogram;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addVertices(int count) {
+        structureLock.writeLock().lock();
+        try {
+            super.addVertices(count);
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /** 扩容时连同出入度数组一起复制 */
+    @Override
+    public void ensureVertexCapacity(int n) {
+        structureLock.writeLock().lock();
+        try {
+            super.ensureVertexCapacity(n);
+            if (n > indegrees.length()) {
+                int capacity = Math.max(n, indegrees.length() * 2);
+                indegrees = copyOf(indegrees, capacity);
+                outdegrees = copyOf(outdegrees, capacity);
+            }
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeVertex(int v) {
+        structureLock.writeLock().lock();
+        try {
+            super.removeVertex(v);
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int allocateVertex() {
+        structureLock.writeLock().lock();
+        try {
+            return super.allocateVertex();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void restoreVertex(int v) {
+        structureLock.writeLock().lock();
+        try {
+            super.restoreVertex(v);
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int[] compact() {
+        structureLock.writeLock().lock();
+        try {
+            int[] oldToNew = super.compact();
+            indegrees = remap(indegrees, oldToNew, verticesNumber());
+            outdegrees = remap(outdegrees, oldToNew, verticesNumber());
+            return oldToNew;
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clearAllEdges() {
+        structureLock.writeLock().lock();
+        try {
+            super.clearAllEdges();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void generateRandomGraph() {
+        structureLock.writeLock().lock();
+        try {
+            super.generateRandomGraph();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /** 持写锁生成快照，之后的修改按行写时复制，不影响快照的读者 */
+    @Override
+    public Graph snapshot() {
+        structureLock.writeLock().lock();
+        try {
+            return super.snapshot();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    /** 持写锁生成快照，得到某一时刻一致的 CSR 图 */
+    @Override
+    public CsrGraph toCsr() {
+        structureLock.writeLock().lock();
+        try {
+            return super.toCsr();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String getAdjListString() {
+        structureLock.writeLock().lock();
+        try {
+            return super.getAdjListString();
+        } finally {
+            structureLock.writeLock().unlock();
+        }
+    }
+
+    private static AtomicIntegerArray copyOf(AtomicIntegerArray source, int capacity) {
+        AtomicIntegerArray grown = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < source.length(); i++) {
+            grown.set(i, source.get(i));
+        }
+        return grown;
+    }
+
+    private static AtomicIntegerArray remap(AtomicIntegerArray source, int[] oldToNew, int newCount) {
+        AtomicIntegerArray remapped = new AtomicIntegerArray(newCount);
+        for (int v = 0; v < oldToNew.length; v++) {
+            if (oldToNew[v] >= 0) remapped.set(oldToNew[v], source.get(v));
+        }
+        return remapped;
+    }
+}
@@ -0,0 +1,418 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * 收缩层次（Contraction Hierarchies）：按重要性从低到高逐个收缩顶点，收缩时若某对邻居之间的最短路径必须经过该顶点，
+ * 就在它们之间加一条捷径边。结果是每个顶点的“向上”边（通往更晚收缩的顶点），查询时两侧都只沿向上边搜索，
+ * 大图上每次只访问几百个顶点。由 ContractionHierarchySearch 执行查询。
+ * 收缩顺序的优先级由边差（需要加的捷径数减去去掉的边数）、已收缩的邻居数和层数组成，出堆时惰性重算；
+ * 见证搜索（判断是否存在不经过该顶点、不长于两段之和的路径）限制了出堆次数，超出时直接加捷径，结果依然正确，只是捷径多一些。
+ * 预处理只做一次，图修改后须重新构建；对象创建后不再修改，可在线程间共享。
+ */
+public final class ContractionHierarchy {
+    /** 收缩时一次见证搜索最多出堆的顶点数 */
+    private static final int CONTRACT_SETTLE_LIMIT = 1000;
+    /** 估计优先级时的见证搜索限制，只影响收缩顺序 */
+    private static final int PRIORITY_SETTLE_LIMIT = 100;
+
+    private final boolean directed;
+    private final int vertices;
+    private final int arcs;
+    private final long graphVersion;
+    private final int shortcuts;
+    // 以下数组都按收缩次序编号：顶点 v 在其中的编号为 rank[v]，order 为反向映射。
+    // 层次高的顶点编号相邻，每次查询都会访问的顶层集中在数组末尾一小段，缓存命中率高
+    final int[] rank;
+    final int[] order;
+    // 向上的出边 r -> upTargets[i]，middle 为捷径跳过的顶点（同样按次序编号），原图中的边为 -1
+    final int[] upOffsets, upTargets, upWeights, upMiddle;
+    // 向下的入边 downSources[i] -> r（起点的层次更高），反向搜索沿这些边走
+    final int[] downOffsets, downSources, downWeights, downMiddle;
+    // 捷径 a -> b（中间点 m）的两半：a -> m 在向下边中的下标、m -> b 在向上边中的下标，展开路径时不必查找
+    final int[] upFirst, upSecond, downFirst, downSecond;
+
+    private ContractionHierarchy(Graph graph, long graphVersion, int shortcuts, int[] rank,
+                                 int[][] up, int[][] down) {
+        this.directed = graph.isDirected();
+        this.vertices = graph.verticesNumber();
+        this.arcs = graph.edgesNumber();
+        this.graphVersion = graphVersion;
+        this.shortcuts = shortcuts;
+        this.rank = rank;
+        order = new int[rank.length];
+        for (int v = 0; v < rank.length; v++) {
+            order[rank[v]] = v;
+        }
+        upOffsets = up[0];
+        upTargets = up[1];
+        upWeights = up[2];
+        upMiddle = up[3];
+        downOffsets = down[0];
+        downSources = down[1];
+        downWeights = down[2];
+        downMiddle = down[3];
+        int n = rank.length;
+        upFirst = new int[upTargets.length];
+        upSecond = new int[upTargets.length];
+        downFirst = new int[downSources.length];
+        downSecond = new int[downSources.length];
+        for (int r = 0; r < n; r++) {
+            for (int i = upOffsets[r]; i < upOffsets[r + 1]; i++) {
+                int m = upMiddle[i];
+                if (m < 0) continue;
+                upFirst[i] = indexOf(downOffsets, downSources, m, r);
+                upSecond[i] = indexOf(upOffsets, upTargets, m, upTargets[i]);
+            }
+            for (int i = downOffsets[r]; i < downOffsets[r + 1]; i++) {
+                int m = downMiddle[i];
+                if (m < 0) continue;
+                downFirst[i] = indexOf(downOffsets, downSources, m, downSources[i]);
+                downSecond[i] = indexOf(upOffsets, upTargets, m, r);
+            }
+        }
+    }
+
+    /** 第 row 行中邻居为 neighbor 的边的下标 */
+    private static int indexOf(int[] offsets, int[] neighbors, int row, int neighbor) {
+        for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+            if (neighbors[i] == neighbor) return i;
+        }
+        throw new IllegalStateException("收缩层次中缺少边: " + row + " / " + neighbor);
+    }
+
+    /** 收缩整个图，权重须非负 */
+    public static ContractionHierarchy build(Graph graph) {
+        long version = graph.version();
+        Builder builder = new Builder(graph);
+        builder.contractAll();
+        return new ContractionHierarchy(graph, version, builder.shortcuts, builder.rank,
+                builder.toCsr(builder.upTo, builder.upW, builder.upMid),
+                builder.toCsr(builder.downFrom, builder.downW, builder.downMid));
+    }
+
+    /** 顶点的收缩次序，越大越重要；已删除的顶点排在最前面 */
+    public int rank(int v) {
+        return rank[v];
+    }
+
+    /** 加入的捷径边数 */
+    public int shortcutCount() {
+        return shortcuts;
+    }
+
+    public int verticesNumber() {
+        return vertices;
+    }
+
+    /** 与 LandmarkTable 相同：顶点数、方向、边数一致且构建后图没有再被修改 */
+    public boolean isValidFor(Graph graph) {
+        return graph.verticesNumber() == vertices && graph.isDirected() == directed
+                && graph.edgesNumber() == arcs && graph.version() == graphVersion;
+    }
+
+    /**
+     * 收缩过程。剩余图的每个顶点保存出边和入边两张表（邻居、权重、捷径中间点），
+     * 收缩一个顶点时把它从邻居的表中删去，因此表中始终只有尚未收缩的顶点，度数即当前度数。
+     */
+    private static final class Builder {
+        final Graph graph;
+        final int n;
+        final boolean directed;
+        final int[][] outTo, outW, outMid;
+        final int[] outCount;
+        final int[][] inFrom, inW, inMid;
+        final int[] inCount;
+        final boolean[] contracted;
+        final int[] deletedNeighbors;
+        final int[] level; // 收缩后所在的层数，不低于已收缩邻居的层数加一，让收缩在图中均匀展开
+        final int[] rank;
+        final int[][] upTo, upW, upMid, downFrom, downW, downMid;
+        int shortcuts;
+
+        // 见证搜索的状态，只重置访问过的顶点
+        final int[] dist;
+        final int[] targetMark; // 等于 searchId 的顶点是本次见证搜索要找的目标
+        final int[] neighborMark; // 等于当前收缩次序的邻居已经计过数
+        int searchId;
+        final IndexedDaryHeap heap;
+        int[] touched = new int[64];
+        int touchedCount;
+
+        Builder(Graph graph) {
+            this.graph = graph;
+            n = graph.verticesNumber();
+            directed = graph.isDirected();
+            outTo = new int[n][];
+            outW = new int[n][];
+            outMid = new int[n][];
+            outCount = new int[n];
+            inFrom = new int[n][];
+            inW = new int[n][];
+            inMid = new int[n][];
+            inCount = new int[n];
+            contracted = new boolean[n];
+            deletedNeighbors = new int[n];
+            level = new int[n];
+            rank = new int[n];
+            upTo = new int[n][];
+            upW = new int[n][];
+            upMid = new int[n][];
+            downFrom = new int[n][];
+            downW = new int[n][];
+            downMid = new int[n][];
+            dist = new int[n];
+            Arrays.fill(dist, Integer.MAX_VALUE);
+            targetMark = new int[n];
+            neighborMark = new int[n];
+            heap = new IndexedDaryHeap(n);
+            int[] empty = new int[0];
+            for (int v = 0; v < n; v++) {
+                int degree = graph.isVertexRemoved(v) ? 0 : graph.outDegree(v);
+                outTo[v] = new int[degree];
+                outW[v] = new int[degree];
+                outMid[v] = new int[degree];
+                inFrom[v] = empty;
+                inW[v] = empty;
+                inMid[v] = empty;
+            }
+            for (int u = 0; u < n; u++) {
+                if (graph.isVertexRemoved(u)) continue;
+                final int from = u;
+                graph.forEachNeighbor(u, (v, w) -> {
+                    if (v == from) return; // 自环不影响最短路径
+                    if (w < 0) {
+                        throw new IllegalArgumentException("收缩层次要求权重非负: " + from + " -> " + v);
+                    }
+                    addArc(from, v, w, -1);
+                });
+            }
+        }
+
+        void contractAll() {
+            int next = 0;
+            for (int v = 0; v < n; v++) {
+                if (graph.isVertexRemoved(v)) {
+                    contracted[v] = true;
+                    rank[v] = next++;
+                    upTo[v] = upW[v] = upMid[v] = downFrom[v] = downW[v] = downMid[v] = new int[0];
+                }
+            }
+            IndexedDaryHeap order = new IndexedDaryHeap(n);
+            for (int v = 0; v < n; v++) {
+                if (!contracted[v]) order.insert(v, priority(v));
+            }
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                // 惰性更新：重新计算后不再是最小的，放回去换下一个
+                long p = priority(v);
+                if (!order.isEmpty() && p > order.peekKey()) {
+                    order.insert(v, p);
+                    continue;
+                }
+                contract(v, true);
+                rank[v] = next++;
+                upTo[v] = Arrays.copyOf(outTo[v], outCount[v]);
+                upW[v] = Arrays.copyOf(outW[v], outCount[v]);
+                upMid[v] = Arrays.copyOf(outMid[v], outCount[v]);
+                downFrom[v] = Arrays.copyOf(inFrom[v], inCount[v]);
+                downW[v] = Arrays.copyOf(inW[v], inCount[v]);
+                downMid[v] = Arrays.copyOf(inMid[v], inCount[v]);
+                detach(v);
+                // 邻居的优先级不立即重算，等它出堆时再惰性更新；无向图的邻居在两张表中各出现一次，只计一次
+                for (int i = 0; i < outCount[v]; i++) countDeleted(outTo[v][i], v, next);
+                for (int i = 0; i < inCount[v]; i++) countDeleted(inFrom[v][i], v, next);
+                // 剩余图中不再需要 v 的表
+                outTo[v] = outW[v] = outMid[v] = inFrom[v] = inW[v] = inMid[v] = null;
+            }
+        }
+
+        private void countDeleted(int x, int v, int next) {
+            if (neighborMark[x] == next) return;
+            neighborMark[x] = next;
+            deletedNeighbors[x]++;
+            level[x] = Math.max(level[x], level[v] + 1);
+        }
+
+        private long priority(int v) {
+            return 2L * (contract(v, false) - inCount[v] - outCount[v]) + deletedNeighbors[v] + level[v];
+        }
+
+        /**
+         * 对 v 的每个入邻居 u 做一次见证搜索，找出需要的捷径 u -> x；apply 为 false 时只计数。
+         * 新加的捷径立即进入剩余图，后面的见证搜索可以用上，它代表的路径长度真实存在，不影响正确性。
+         * 无向图的 u -> x 与 x -> u 结论相同，只从编号小的一端搜索，捷径成对加入。
+         */
+        private int contract(int v, boolean apply) {
+            int added = 0;
+            for (int i = 0; i < inCount[v]; i++) {
+                int u = inFrom[v][i];
+                long wu = inW[v][i];
+                long limit = -1;
+                int targets = 0;
+                searchId++;
+                for (int j = 0; j < outCount[v]; j++) {
+                    int x = outTo[v][j];
+                    if (x == u || (!directed && x < u)) continue;
+                    limit = Math.max(limit, wu + outW[v][j]);
+                    targetMark[x] = searchId;
+                    targets++;
+                }
+                if (targets == 0) continue;
+                witnessSearch(u, v, limit, targets, apply ? CONTRACT_SETTLE_LIMIT : PRIORITY_SETTLE_LIMIT);
+                for (int j = 0; j < outCount[v]; j++) {
+                    int x = outTo[v][j];
+                    if (x == u || (!directed && x < u)) continue;
+                    long length = wu + outW[v][j];
+                    if (dist[x] <= length) continue; // 有不经过 v 的路径
+                    added += directed ? 1 : 2;
+                    if (apply) {
+                        if (length > Integer.MAX_VALUE - 1) {
+                            throw new IllegalArgumentException("捷径长度超出 int 范围: " + u + " -> " + x);
+                        }
+                        if (addArc(u, x, (int) length, v)) shortcuts++;
+                        if (!directed && addArc(x, u, (int) length, v)) shortcuts++;
+                    }
+                }
+                resetWitness();
+            }
+            return added;
+        }
+
+        /**
+         * 在去掉 skip 的剩余图中从 source 做有界 Dijkstra，
+         * 所有目标都已出堆、距离超过 limit 或出堆数达到上限后停止。
+         */
+        private void witnessSearch(int source, int skip, long limit, int targets, int maxSettled) {
+            dist[source] = 0;
+            touch(source);
+            heap.insert(source, 0);
+            int settled = 0;
+            while (!heap.isEmpty() && heap.peekKey() <= limit && settled < maxSettled) {
+                int u = heap.poll();
+                settled++;
+                if (targetMark[u] == searchId && --targets == 0) break;
+                int du = dist[u];
+                int[] to = outTo[u];
+                int[] w = outW[u];
+                for (int i = 0, c = outCount[u]; i < c; i++) {
+                    int x = to[i];
+                    if (x == skip) continue;
+                    long d = (long) du + w[i];
+                    if (d <= limit && d < dist[x]) { // 超过 limit 的顶点不可能成为见证路径的一部分
+                        if (dist[x] == Integer.MAX_VALUE) touch(x);
+                        dist[x] = (int) d;
+                        heap.insertOrDecrease(x, d);
+                    }
+                }
+            }
+        }
+
+        private void touch(int v) {
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = v;
+        }
+
+        private void resetWitness() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Integer.MAX_VALUE;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+
+        /** 加入或缩短弧 u -> v，两张表同时更新；新加入时返回 true */
+        private boolean addArc(int u, int v, int w, int mid) {
+            for (int i = 0; i < outCount[u]; i++) {
+                if (outTo[u][i] != v) continue;
+                if (w < outW[u][i]) {
+                    outW[u][i] = w;
+                    outMid[u][i] = mid;
+                    for (int j = 0; j < inCount[v]; j++) {
+                        if (inFrom[v][j] == u) {
+                            inW[v][j] = w;
+                            inMid[v][j] = mid;
+                            break;
+                        }
+                    }
+                }
+                return false;
+            }
+            if (outCount[u] == outTo[u].length) {
+                int capacity = Math.max(4, outCount[u] * 2);
+                outTo[u] = Arrays.copyOf(outTo[u], capacity);
+                outW[u] = Arrays.copyOf(outW[u], capacity);
+                outMid[u] = Arrays.copyOf(outMid[u], capacity);
+            }
+            outTo[u][outCount[u]] = v;
+            outW[u][outCount[u]] = w;
+            outMid[u][outCount[u]++] = mid;
+            if (inCount[v] == inFrom[v].length) {
+                int capacity = Math.max(4, inCount[v] * 2);
+                inFrom[v] = Arrays.copyOf(inFrom[v], capacity);
+                inW[v] = Arrays.copyOf(inW[v], capacity);
+                inMid[v] = Arrays.copyOf(inMid[v], capacity);
+            }
+            inFrom[v][inCount[v]] = u;
+            inW[v][inCount[v]] = w;
+            inMid[v][inCount[v]++] = mid;
+            return true;
+        }
+
+        /** 把 v 从所有邻居的表中删去（与末尾交换） */
+        private void detach(int v) {
+            contracted[v] = true;
+            for (int i = 0; i < outCount[v]; i++) {
+                int x = outTo[v][i];
+                for (int j = 0; j < inCount[x]; j++) {
+                    if (inFrom[x][j] == v) {
+                        int last = --inCount[x];
+                        inFrom[x][j] = inFrom[x][last];
+                        inW[x][j] = inW[x][last];
+                        inMid[x][j] = inMid[x][last];
+                        break;
+                    }
+                }
+            }
+            for (int i = 0; i < inCount[v]; i++) {
+                int u = inFrom[v][i];
+                for (int j = 0; j < outCount[u]; j++) {
+                    if (outTo[u][j] == v) {
+                        int last = --outCount[u];
+                        outTo[u][j] = outTo[u][last];
+                        outW[u][j] = outW[u][last];
+                        outMid[u][j] = outMid[u][last];
+                        break;
+                    }
+                }
+            }
+        }
+
+        /** 把按顶点分开的表合并成 {offsets, 邻居, 权重, 中间点} 四个数组，行和顶点编号都换成收缩次序 */
+        int[][] toCsr(int[][] adj, int[][] weights, int[][] middle) {
+            int[] order = new int[n];
+            for (int v = 0; v < n; v++) {
+                order[rank[v]] = v;
+            }
+            int[] offsets = new int[n + 1];
+            for (int r = 0; r < n; r++) {
+                offsets[r + 1] = offsets[r] + adj[order[r]].length;
+            }
+            int m = offsets[n];
+            int[] targets = new int[m];
+            int[] w = new int[m];
+            int[] mid = new int[m];
+            for (int r = 0; r < n; r++) {
+                int v = order[r];
+                for (int i = 0, pos = offsets[r]; i < adj[v].length; i++, pos++) {
+                    targets[pos] = rank[adj[v][i]];
+                    w[pos] = weights[v][i];
+                    mid[pos] = middle[v][i] < 0 ? -1 : rank[middle[v][i]];
+                }
+            }
+            return new int[][]{offsets, targets, w, mid};
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package org.example.core;
+
+import java.util.*;
+
+/**
+ * 在 ContractionHierarchy 上做点对点查询：起点沿向上的出边、终点沿向下的入边反向同时搜索，
+ * 两侧都只走向层次更高的顶点，堆顶距离不小于已知最短距离的一侧停止。
+ * 出堆时若能从更高层的已到达顶点经一条边以更短的距离到达当前顶点（stall-on-demand），当前顶点不再展开。
+ * 找到的路径中的捷径逐条展开为原图的边，返回的路径与 Dijkstra.findShortestPath 的约定相同。
+ * 搜索在收缩次序编号上进行（见 ContractionHierarchy），只在入口和输出路径时换算。
+ * 查询状态属于本对象，每个线程各用一个；图修改后查询抛出 IllegalStateException。
+ */
+public class ContractionHierarchySearch {
+    private final Graph graph;
+    private final ContractionHierarchy ch;
+    private final int[] distF, distB;
+    private final int[] prevF, prevB;       // 正向为前驱，反向为后继
+    private final int[] edgeF, edgeB;       // 到达该顶点所走的边：正向为向上边的下标，反向为向下边的下标
+    private final IndexedDaryHeap heapF, heapB;
+    private int[] touched = new int[64];
+    private int touchedCount;
+    private long best;
+    private int meet;
+    private int settled;
+    private int[] stack = new int[32]; // 展开捷径用的栈，每项为 (边, 终点)，向上边为下标 i，向下边为 ~i
+
+    public ContractionHierarchySearch(Graph graph, ContractionHierarchy ch) {
+        if (!ch.isValidFor(graph)) {
+            throw new IllegalArgumentException("收缩层次与图不匹配");
+        }
+        this.graph = graph;
+        this.ch = ch;
+        int n = ch.verticesNumber();
+        distF = new int[n];
+        distB = new int[n];
+        prevF = new int[n];
+        prevB = new int[n];
+        edgeF = new int[n];
+        edgeB = new int[n];
+        heapF = new IndexedDaryHeap(n);
+        heapB = new IndexedDaryHeap(n);
+        Arrays.fill(distF, Integer.MAX_VALUE);
+        Arrays.fill(distB, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 计算从 start 到 end 的最短路径
+     * @return 最短路径的顶点列表（包含 start 和 end），如果不可达或顶点不存在则返回空列表
+     */
+    public List<Integer> findShortestPath(int start, int end) {
+        List<Integer> path = new ArrayList<>();
+        if (!begin(start, end)) return path;
+        try {
+            search(ch.rank[start], ch.rank[end]);
+            if (best == Long.MAX_VALUE) return path;
+            buildPath(ch.rank[start], path);
+            return path;
+        } finally {
+            reset();
+        }
+    }
+
+    /** 只求最短距离，不展开捷径，不可达时为 Integer.MAX_VALUE */
+    public int distance(int start, int end) {
+        if (!begin(start, end)) return Integer.MAX_VALUE;
+        try {
+            search(ch.rank[start], ch.rank[end]);
+            return getShortestDistance();
+        } finally {
+            reset();
+        }
+    }
+
+    /** 检查图是否被修改并清空上一次的结果，顶点不存在时返回 false */
+    private boolean begin(int start, int end) {
+        if (!ch.isValidFor(graph)) {
+            throw new IllegalStateException("图已修改，收缩层次需要重新构建");
+        }
+        int n = ch.verticesNumber();
+        best = Long.MAX_VALUE;
+        settled = 0;
+        return start >= 0 && start < n && end >= 0 && end < n
+                && !graph.isVertexRemoved(start) && !graph.isVertexRemoved(end);
+    }
+
+    /** 上一次查询的最短距离，不可达时为 Integer.MAX_VALUE */
+    public int getShortestDistance() {
+        return best == Long.MAX_VALUE ? Integer.MAX_VALUE : (int) best;
+    }
+
+    /** 上一次查询两侧共出堆的顶点数 */
+    public int settledCount() {
+        return settled;
+    }
+
+    private void search(int start, int end) {
+        distF[start] = 0;
+        prevF[start] = -1;
+        distB[end] = 0;
+        prevB[end] = -1;
+        touch(start);
+        touch(end);
+        heapF.insert(start, 0);
+        heapB.insert(end, 0);
+        boolean forward = true;
+        while (true) {
+            boolean f = !heapF.isEmpty() && heapF.peekKey() < best;
+            boolean b = !heapB.isEmpty() && heapB.peekKey() < best;
+            if (!f && !b) break;
+            if (f && b) forward = !forward; // 两侧都可走时交替进行
+            else forward = f;
+            if (forward) {
+                expand(heapF.poll(), distF, distB, prevF, edgeF,
+                        ch.upOffsets, ch.upTargets, ch.upWeights,
+                        ch.downOffsets, ch.downSources, ch.downWeights, heapF);
+            } else {
+                expand(heapB.poll(), distB, distF, prevB, edgeB,
+                        ch.downOffsets, ch.downSources, ch.downWeights,
+                        ch.upOffsets, ch.upTargets, ch.upWeights, heapB);
+            }
+        }
+    }
+
+    /**
+     * 展开一侧出堆的顶点 u：先用两侧距离之和更新最短距离，再检查能否被停顿，最后沿本侧的边松弛。
+     * 停顿检查看的是与本侧方向相反的边：正向时是以 u 为终点的向下入边，其起点层次更高。
+     */
+    private void expand(int u, int[] dist, int[] other, int[] prev, int[] edge,
+                        int[] offsets, int[] targets, int[] weights,
+                        int[] stallOffsets, int[] stallTargets, int[] stallWeights, IndexedDaryHeap heap) {
+        settled++;
+        int du = dist[u];
+        if (other[u] != Integer.MAX_VALUE && (long) du + other[u] < best) {
+            best = (long) du + other[u];
+            meet = u;
+        }
+        for (int i = stallOffsets[u], e = stallOffsets[u + 1]; i < e; i++) {
+            int x = stallTargets[i];
+            if (dist[x] != Integer.MAX_VALUE && (long) dist[x] + stallWeights[i] < du) return;
+        }
+        for (int i = offsets[u], e = offsets[u + 1]; i < e; i++) {
+            int x = targets[i];
+            long d = (long) du + weights[i];
+            if (d < dist[x]) {
+                if (dist[x] == Integer.MAX_VALUE && other[x] == Integer.MAX_VALUE) touch(x);
+                dist[x] = (int) d;
+                prev[x] = u;
+                edge[x] = i;
+                heap.insertOrDecrease(x, d);
+            }
+        }
+    }
+
+    /** 从相接点分别沿两侧的前驱回到起点和终点，逐条展开捷径；搜索中的编号都是收缩次序，加入路径时换回顶点编号 */
+    private void buildPath(int start, List<Integer> path) {
+        int count = 0;
+        for (int at = meet; at != start; at = prevF[at]) count++;
+        int[] chain = new int[count + 1];
+        int i = count;
+        for (int at = meet; ; at = prevF[at]) {
+            chain[i--] = at;
+            if (at == start) break;
+        }
+        path.add(ch.order[start]);
+        for (int k = 1; k <= count; k++) {
+            unpack(edgeF[chain[k]], chain[k], path);
+        }
+        for (int at = meet; prevB[at] != -1; at = prevB[at]) {
+            unpack(~edgeB[at], prevB[at], path);
+        }
+    }
+
+    /**
+     * 展开一条边（向上边为下标 i，向下边为 ~i），依次把起点之后的顶点加入 path，to 为这条边的终点。
+     * 捷径 a -> b 的中间点 m 比两端都先收缩，a -> m 是 m 的向下入边，m -> b 是 m 的向上出边，下标在构建时已算好。
+     */
+    private void unpack(int edge, int to, List<Integer> path) {
+        int top = 0;
+        stack = push(stack, top, edge, to);
+        top += 2;
+        while (top > 0) {
+            top -= 2;
+            int e = stack[top];
+            int b = stack[top + 1];
+            int m, first, second;
+            if (e >= 0) {
+                m = ch.upMiddle[e];
+                first = ch.upFirst[e];
+                second = ch.upSecond[e];
+            } else {
+                m = ch.downMiddle[~e];
+                first = ch.downFirst[~e];
+                second = ch.downSecond[~e];
+            }
+            if (m < 0) {
+                path.add(ch.order[b]);
+                continue;
+            }
+            // 先压后半段，先弹出前半段
+            stack = push(stack, top, second, b);
+            top += 2;
+            stack = push(stack, top, ~first, m);
+            top += 2;
+        }
+    }
+
+    private static int[] push(int[] stack, int top, int edge, int to) {
+        if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+        stack[top] = edge;
+        stack[top + 1] = to;
+        return stack;
+    }
+
+    private void touch(int v) {
+        if (touchedCount == touched.length) {
+            touched = Arrays.copyOf(touched, touchedCount * 2);
+        }
+        touched[touchedCount++] = v;
+    }
+
+    /** 恢复本次查询改动过的顶点 */
+    private void reset() {
+        for (int i = 0; i < touchedCount; i++) {
+            int v = touched[i];
+            distF[v] = Integer.MAX_VALUE;
+            distB[v] = Integer.MAX_VALUE;
+        }
+        touchedCount = 0;
+        heapF.clear();
+        heapB.clear();
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * 压缩稀疏行(CSR)格式的只读图快照。
+ * 顶点 v 的邻接边存放在 targets/weights 的 [offsets[v], offsets[v+1]) 区间内，
+ * 同一顶点的邻居按编号升序排列，遍历时内存连续访问。
+ */
+public class CsrGraph extends ReadOnlyGraph {
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    CsrGraph(int[] offsets, int[] targets, int[] weights, boolean directed) {
+        super(offsets.length - 1, directed);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        rebuildStatistics(offsets, targets);
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    int[] weights() {
+        return weights;
+    }
+
+    /**
+     * 把 graph 的每条弧反向后生成 CSR 图，顶点 v 的邻居为所有指向 v 的顶点，供反向搜索使用。
+     * 按起点升序扫描填入，每行自然有序；无向图反向后与原图相同。
+     */
+    static CsrGraph reverseOf(Graph graph) {
+        int n = graph.verticesNumber();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            if (graph.isVertexRemoved(u)) continue;
+            graph.forEachNeighbor(u, (v, w) -> offsets[v + 1]++);
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] sources = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int u = 0; u < n; u++) {
+            if (graph.isVertexRemoved(u)) continue;
+            final int from = u;
+            graph.forEachNeighbor(u, (v, w) -> {
+                int i = fill[v]++;
+                sources[i] = from;
+                weights[i] = w;
+            });
+        }
+        CsrGraph reverse = new CsrGraph(offsets, sources, weights, graph.isDirected());
+        reverse.copyTombstonesFrom(graph);
+        return reverse;
+    }
+
+    /** 在顶点 v 的邻接区间中查找第一个编号大于 to 的位置 */
+    private int upperBound(int v, int to) {
+        int lo = offsets[v];
+        int hi = offsets[v + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (targets[mid] <= to) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public Edge firstEdge(int onevertex) {
+        int i = offsets[onevertex];
+        if (i < offsets[onevertex + 1]) {
+            return new Edge(onevertex, targets[i], weights[i]);
+        }
+        return null; // 没有边
+    }
+
+    @Override
+    public Edge nextEdge(Edge pre) {
+        if (pre == null) return null;
+        int from = pre.getMfrom();
+        int i = upperBound(from, pre.getMto());
+        if (i < offsets[from + 1]) {
+            return new Edge(from, targets[i], weights[i]);
+        }
+        return null;
+    }
+
+    @Override
+    public void forEachNeighbor(int onevertex, NeighborConsumer action) {
+        int end = offsets[onevertex + 1];
+        for (int i = offsets[onevertex]; i < end; i++) {
+            action.accept(targets[i], weights[i]);
+        }
+    }
+
+    @Override
+    public boolean isEdge(Edge edge) {
+        if (edge == null) return false;
+        int from = edge.getMfrom();
+        int i = upperBound(from, edge.getMto()) - 1;
+        return i >= offsets[from] && targets[i] == edge.getMto();
+    }
+
+    @Override
+    public int fromVertex(Edge edge) {
+        return edge.getMfrom();
+    }
+
+    @Override
+    public int toVertex(Edge edge) {
+        return edge.getMto();
+    }
+
+    @Override
+    public int weight(Edge edge) {
+        return edge.getMweight();
+    }
+}
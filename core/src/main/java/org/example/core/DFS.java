@@ -1,14 +1,31 @@
 package org.example.core;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class DFS {
     private boolean[] visited;
-    private AdjListGraph graph;
+    private Graph graph;
     private List<Integer> traversalOrder;
     private List<TraversalStep> steps; // 记录动画步骤
+    // 显式栈：每层的顶点、其邻居在缓冲区中的起点、下一个待检查的邻居
+    private int[] frameVertex = new int[16];
+    private int[] frameStart = new int[16];
+    private int[] frameNext = new int[16];
+    // 栈上各层顶点的邻居按层依次存放
+    private int[] neighborTo = new int[64];
+    private int[] neighborWeight = new int[64];
+    private int neighborCount;
+    private final NeighborConsumer collector = (to, weight) -> {
+        if (neighborCount == neighborTo.length) {
+            neighborTo = Arrays.copyOf(neighborTo, neighborCount * 2);
+            neighborWeight = Arrays.copyOf(neighborWeight, neighborCount * 2);
+        }
+        neighborTo[neighborCount] = to;
+        neighborWeight[neighborCount++] = weight;
+    };
 
-    public DFS(AdjListGraph graph) {
+    public DFS(Graph graph) {
         this.graph = graph;
         visited = new boolean[graph.verticesNumber()];
         traversalOrder = new ArrayList<>();
@@ -24,38 +41,72 @@ public class DFS {
         int numVertices = graph.verticesNumber();
 
         // 1. 先从用户指定的起点开始遍历 (如果合法)
-        if (startVertex >= 0 && startVertex < numVertices) {
+        if (startVertex >= 0 && startVertex < numVertices && !graph.isVertexRemoved(startVertex)) {
             deepFirstSearch(startVertex);
         }
         
         // 2. [核心修改] 检查其他未访问的连通分量
         for (int i = 0; i < numVertices; i++) {
-            if (!visited[i]) {
+            if (!visited[i] && !graph.isVertexRemoved(i)) {
                 // 对每个未访问的节点启动新的 DFS
                 deepFirstSearch(i);
             }
         }
     }
 
-    private void deepFirstSearch(int v) {
+    /**
+     * 用显式栈模拟递归，避免大图上递归过深导致栈溢出。
+     * 顶点入栈时用 forEachNeighbor 把它的邻居一次性抄到 neighborTo 的末尾，每层只记下一个待检查的位置，
+     * 访问标记在取出邻居时才检查，步骤记录顺序与递归写法一致；栈和邻居缓冲区在多次调用间复用，按需加倍。
+     */
+    private void deepFirstSearch(int start) {
+        neighborCount = 0;
+        int top = push(0, start);
+
+        while (top > 0) {
+            int v = frameVertex[top - 1];
+            int i = frameNext[top - 1];
+            // 栈顶层的邻居总是缓冲区中最后一段
+            while (i < neighborCount && visited[neighborTo[i]]) i++;
+            if (i == neighborCount) {
+                top--;
+                neighborCount = frameStart[top];
+                if (top > 0) {
+                    // 记录: 递归回溯到上一层顶点 (节点变浅色/回溯色)
+                    steps.add(new TraversalStep(TraversalStep.Type.BACKTRACK, frameVertex[top - 1]));
+                }
+                continue;
+            }
+
+            int w = neighborTo[i];
+            // 记录: 前进到下一层 (边变色)
+            steps.add(new TraversalStep(TraversalStep.Type.VISIT_EDGE, new Edge(v, w, neighborWeight[i])));
+            frameNext[top - 1] = i + 1;
+            top = push(top, w);
+        }
+    }
+
+    /** 访问 v 并压入第 top 层，返回新的栈高 */
+    private int push(int top, int v) {
+        visit(v);
+        if (top == frameVertex.length) {
+            frameVertex = Arrays.copyOf(frameVertex, top * 2);
+            frameStart = Arrays.copyOf(frameStart, top * 2);
+            frameNext = Arrays.copyOf(frameNext, top * 2);
+        }
+        frameVertex[top] = v;
+        frameStart[top] = neighborCount;
+        frameNext[top] = neighborCount;
+        graph.forEachNeighbor(v, collector);
+        return top + 1;
+    }
+
+    private void visit(int v) {
         visited[v] = true;
         traversalOrder.add(v);
         
         // 记录: 访问节点 (变深色)
         steps.add(new TraversalStep(TraversalStep.Type.VISIT, v));
-        
-        for(Edge e = graph.firstEdge(v); e != null; e = graph.nextEdge(e)) {
-            int w = graph.toVertex(e);
-            if(!visited[w]) {
-                // 记录: 前进到下一层 (边变色)
-                steps.add(new TraversalStep(TraversalStep.Type.VISIT_EDGE, e));
-                
-                deepFirstSearch(w);
-                
-                // 记录: 递归回溯到 v (节点变浅色/回溯色)
-                steps.add(new TraversalStep(TraversalStep.Type.BACKTRACK, v));
-            }
-        }
     }
     
     public List<Integer> getTraversalOrder() { return new ArrayList<>(traversalOrder); }
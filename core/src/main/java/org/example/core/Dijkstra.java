@@ -2,15 +2,29 @@ package org.example.core;
 
 import java.util.*;
 
+/**
+ * 单源最短路径。优先队列为带索引的 d 叉堆，每个顶点在堆中只有一项，松弛时原地降低优先级。
+ * 关闭日志后整个搜索不再按边分配对象，适合大图；界面使用默认的带日志模式展示计算过程。
+ */
 public class Dijkstra {
     private Graph graph;
     private int[] dist;
     private int[] prev;
     private boolean[] visited;
     private List<String> logSteps; // 用于记录计算过程的日志
+    private final boolean logging;
+    private IndexedDaryHeap heap;
+    private int current; // 正在展开的顶点，供 relax 使用
+    private final NeighborConsumer relaxer = this::relax;
 
     public Dijkstra(Graph graph) {
+        this(graph, true);
+    }
+
+    /** logging 为 false 时不记录计算过程，getProcessLog 只有标题 */
+    public Dijkstra(Graph graph, boolean logging) {
         this.graph = graph;
+        this.logging = logging;
         this.logSteps = new ArrayList<>();
     }
 
@@ -26,65 +40,91 @@ public class Dijkstra {
             logSteps.add("错误: 顶点索引越界");
             return new ArrayList<>();
         }
+        if (graph.isVertexRemoved(start) || graph.isVertexRemoved(end)) {
+            logSteps.add("错误: 顶点已被删除");
+            return new ArrayList<>();
+        }
+
+        search(start, end);
+        
+        List<Integer> path = new ArrayList<>();
+        if (dist[end] == Integer.MAX_VALUE) {
+            if (logging) logSteps.add("无法到达终点 " + end);
+            return path; // 无路径
+        }
+        
+        // 重建路径
+        for (int at = end; at != -1; at = prev[at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        
+        return path;
+    }
+    
+    /**
+     * 从 source 出发计算到所有顶点的最短路径，结果为独立的最短路径树，之后可对任意终点 O(路径长度) 取路径。
+     * 树中记录了图的版本号，图被修改后由调用方（如 ShortestPathCache）判断是否需要重算。
+     */
+    public ShortestPathTree shortestPathTree(int source) {
+        if (source < 0 || source >= graph.verticesNumber() || graph.isVertexRemoved(source)) {
+            throw new IllegalArgumentException("顶点不存在: " + source);
+        }
+        long version = graph.version();
+        search(source, -1);
+        return new ShortestPathTree(source, version, Arrays.copyOf(dist, dist.length), Arrays.copyOf(prev, prev.length));
+    }
 
-        dist = new int[n];
-        prev = new int[n];
-        visited = new boolean[n];
+    /** 从 start 开始搜索，弹出 end 时提前结束；end 为 -1 时算完整个连通范围 */
+    private void search(int start, int end) {
+        int n = graph.verticesNumber();
+        // 数组和堆在顶点数不变时重复使用
+        if (dist == null || dist.length != n) {
+            dist = new int[n];
+            prev = new int[n];
+            visited = new boolean[n];
+            heap = new IndexedDaryHeap(n);
+        } else {
+            Arrays.fill(visited, false);
+            heap.clear();
+        }
         
         Arrays.fill(dist, Integer.MAX_VALUE);
         Arrays.fill(prev, -1);
         
         dist[start] = 0;
-        
-        // 优先队列，存储 [顶点, 当前距离]
-        PriorityQueue<int[]> pq = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
-        pq.offer(new int[]{start, 0});
+        heap.insert(start, 0);
         
         logSteps.clear();
-        logSteps.add("初始化: 起点 " + start + " 距离设为 0，其他无穷大");
+        if (logging) logSteps.add("初始化: 起点 " + start + " 距离设为 0，其他无穷大");
 
-        while (!pq.isEmpty()) {
-            int[] current = pq.poll();
-            int u = current[0];
-            int d = current[1];
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            int d = dist[u];
             
-            if (d > dist[u]) continue;
             if (u == end) {
-                logSteps.add("已到达目标点 " + end + "，当前最短距离: " + d);
+                if (logging) logSteps.add("已到达目标点 " + end + "，当前最短距离: " + d);
                 break; // 找到目标，对于求单对最短路径可以提前结束
             }
             
             visited[u] = true;
-            logSteps.add("访问顶点 " + u + " (距离: " + d + ")");
+            if (logging) logSteps.add("访问顶点 " + u + " (距离: " + d + ")");
             
-            for (Edge e = graph.firstEdge(u); e != null; e = graph.nextEdge(e)) {
-                int v = e.getMto();
-                int weight = e.getMweight();
-                
-                if (!visited[v] && dist[u] != Integer.MAX_VALUE && dist[u] + weight < dist[v]) {
-                    dist[v] = dist[u] + weight;
-                    prev[v] = u;
-                    pq.offer(new int[]{v, dist[v]});
-                    logSteps.add("  -> 更新邻居 " + v + " : 新距离 " + dist[v] + " (通过 " + u + ")");
-                }
-            }
-        }
-        
-        List<Integer> path = new ArrayList<>();
-        if (dist[end] == Integer.MAX_VALUE) {
-            logSteps.add("无法到达终点 " + end);
-            return path; // 无路径
+            current = u;
+            graph.forEachNeighbor(u, relaxer);
         }
-        
-        // 重建路径
-        for (int at = end; at != -1; at = prev[at]) {
-            path.add(at);
+    }
+
+    private void relax(int v, int weight) {
+        int u = current;
+        if (!visited[v] && dist[u] != Integer.MAX_VALUE && dist[u] + weight < dist[v]) {
+            dist[v] = dist[u] + weight;
+            prev[v] = u;
+            heap.insertOrDecrease(v, dist[v]);
+            if (logging) logSteps.add("  -> 更新邻居 " + v + " : 新距离 " + dist[v] + " (通过 " + u + ")");
         }
-        Collections.reverse(path);
-        
-        return path;
     }
-    
+
     public int getShortestDistance(int end) {
         if (end >= 0 && end < dist.length) {
             return dist[end];
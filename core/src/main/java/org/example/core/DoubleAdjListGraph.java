@@ -0,0 +1,62 @@
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * double 权重的邻接表图，权重以位模式存放在 long 数组中，不装箱。
+ * 继承的 int 接口（forEachNeighbor、firstEdge 等）看到的是四舍五入并饱和到 int 范围的值。
+ */
+public class DoubleAdjListGraph extends WideAdjListGraph {
+
+    public DoubleAdjListGraph(int numvertex) {
+        this(numvertex, false);
+    }
+
+    /** directed 为 true 时 setEdge/delEdge 只作用于 from -> to 一个方向 */
+    public DoubleAdjListGraph(int numvertex, boolean directed) {
+        super(numvertex, directed);
+    }
+
+    @Override
+    int narrow(long bits) {
+        return (int) Math.rint(Double.longBitsToDouble(bits)); // double 转 int 本身就会饱和
+    }
+
+    @Override
+    long widen(int weight) {
+        return Double.doubleToRawLongBits(weight);
+    }
+
+    public void setEdge(int from, int to, double weight) {
+        if (Double.isNaN(weight)) {
+            throw new IllegalArgumentException("边权不能为 NaN: " + from + "-" + to);
+        }
+        setEdgeBits(from, to, Double.doubleToRawLongBits(weight));
+    }
+
+    /** 获取边的权重，边不存在时返回 0 */
+    public double getEdge(int from, int to) {
+        return Double.longBitsToDouble(edgeBits(from, to, Double.doubleToRawLongBits(0.0)));
+    }
+
+    /** 按目标升序遍历邻居，回调接收完整的 double 权重 */
+    public void forEachDoubleNeighbor(int onevertex, DoubleNeighborConsumer action) {
+        forEachArc(onevertex, (to, bits) -> action.accept(to, Double.longBitsToDouble(bits)));
+    }
+
+    /** 获取所有边：无向图每条边只返回 from < to 的一个方向，有向图返回全部有向边 */
+    public DoubleEdge[] getAllDoubleEdges() {
+        int n = verticesNumber();
+        List<DoubleEdge> allEdges = new ArrayList<>(edgesNumber());
+        for (int i = 0; i < n; i++) {
+            final int from = i;
+            forEachDoubleNeighbor(i, (to, weight) -> {
+                if (isDirected() || from < to) {
+                    allEdges.add(new DoubleEdge(from, to, weight));
+                }
+            });
+        }
+        return allEdges.toArray(new DoubleEdge[0]);
+    }
+}
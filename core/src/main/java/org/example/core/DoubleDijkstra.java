@@ -0,0 +1,42 @@
+package org.example.core;
+
+/**
+ * double 权重图上的 Dijkstra，距离以位模式保存，搜索过程见 WideDijkstra。
+ * 位模式只对非负数保持顺序，遇到负权重时抛出 IllegalArgumentException。
+ */
+public class DoubleDijkstra extends WideDijkstra {
+    private static final long INFINITY_BITS = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+    public DoubleDijkstra(DoubleAdjListGraph graph) {
+        this(graph, true);
+    }
+
+    /** logging 为 false 时不记录计算过程，getProcessLog 只有标题 */
+    public DoubleDijkstra(DoubleAdjListGraph graph, boolean logging) {
+        super(graph, logging);
+    }
+
+    @Override
+    long unreachable() {
+        return INFINITY_BITS;
+    }
+
+    @Override
+    long extend(int from, int to, long distance, long weight) {
+        double w = Double.longBitsToDouble(weight);
+        if (w < 0) {
+            throw new IllegalArgumentException("边权不能为负: " + from + "-" + to + " (" + w + ")");
+        }
+        // 加 0.0 把 -0.0 规整为 0.0，保证位模式非负
+        return Double.doubleToRawLongBits(Double.longBitsToDouble(distance) + w + 0.0);
+    }
+
+    @Override
+    String format(long distance) {
+        return String.valueOf(Double.longBitsToDouble(distance));
+    }
+
+    public double getShortestDistance(int end) {
+        return hasDistance(end) ? Double.longBitsToDouble(dist[end]) : -1;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.core;
+
+/** double 权重的边 */
+public class DoubleEdge {
+    private final int mfrom;
+    private final int mto;
+    private final double mweight;
+
+    public DoubleEdge(int from, int to, double weight) {
+        this.mfrom = from;
+        this.mto = to;
+        this.mweight = weight;
+    }
+    public int getMfrom(){return mfrom;}
+    public int getMto(){return mto;}
+    public double getMweight(){return mweight;}
+}
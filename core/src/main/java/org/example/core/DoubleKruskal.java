@@ -0,0 +1,29 @@
+package org.example.core;
+
+import java.util.Comparator;
+
+/** double 权重图上的 Kruskal 最小生成树 */
+public class DoubleKruskal {
+
+    private DoubleAdjListGraph graph;
+
+    public DoubleKruskal(DoubleAdjListGraph graph) {
+        this.graph = graph;
+    }
+
+    /** @return 最小生成树的边，图不连通时返回 null；主循环见 MinimumSpanningTree */
+    public DoubleEdge[] generateMST() {
+        return MinimumSpanningTree.kruskal(graph.getAllDoubleEdges(), Comparator.comparingDouble(DoubleEdge::getMweight),
+                DoubleEdge::getMfrom, DoubleEdge::getMto, graph.verticesNumber(), graph.liveVerticesNumber());
+    }
+
+    /** 生成树的总权重，图不连通时返回 -1 */
+    public double totalWeight(DoubleEdge[] mst) {
+        if (mst == null) return -1;
+        double total = 0;
+        for (DoubleEdge e : mst) {
+            total += e.getMweight();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.core;
+
+/** double 权重的邻居回调，权重以原始类型传递，不装箱 */
+@FunctionalInterface
+public interface DoubleNeighborConsumer {
+    void accept(int to, double weight);
+}
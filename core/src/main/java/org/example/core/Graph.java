@@ -1,16 +1,38 @@
 package org.example.core;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public abstract class Graph implements IGraph {
   private   int m_num_vertex;	//顶点的个数
   private   int m_num_edge;	//边的条数
   private boolean[] m_visited; // 访问标记数组
   private int[] m_indegree;    // 入度数组
+  private int[] m_outdegree;   // 出度数组
+  private int[] m_degree_count; // 度数直方图：下标为度数，值为该度数的存活顶点个数
+  private int m_max_degree;
+  private final boolean m_directed; // 是否为有向图，无向图的每条边在两个方向各存一次
+  private boolean[] m_removed; // 已删除顶点的墓碑标记
+  private int[] m_free;        // 可复用的已删除顶点编号（栈）
+  private int m_num_free;
+  private long m_version;      // 修改版本号，任何边或顶点的变化都会使其递增
   public Graph(int numvertex)
   {
+      this(numvertex, false);
+  }
+  public Graph(int numvertex, boolean directed)
+  {
+      this.m_directed = directed;
       this.m_num_edge = 0;
       this.m_num_vertex = numvertex;
       this.m_visited =  new boolean[numvertex];
       this.m_indegree = new int[numvertex];
+      this.m_outdegree = new int[numvertex];
+      this.m_degree_count = new int[8];
+      this.m_degree_count[0] = numvertex;
+      this.m_removed = new boolean[numvertex];
+      this.m_free = new int[0];
       for(int i = 0;i <numvertex;i++)
       {
           this.m_indegree[i] = 0;
@@ -20,44 +42,346 @@ public abstract class Graph implements IGraph {
 
   /** 动态添加顶点 */
   public void addVertex() {
-      // 扩展访问标记数组和入度数组
-      int newSize = m_num_vertex + 1;
-      boolean[] newVisited = new boolean[newSize];
-      int[] newIndegree = new int[newSize];
-      
-      // 复制原有数据
-      for (int i = 0; i < m_num_vertex; i++) {
-          newVisited[i] = m_visited[i];
-          newIndegree[i] = m_indegree[i];
-      }
-      
-      // 初始化新顶点
-      newVisited[m_num_vertex] = false;
-      newIndegree[m_num_vertex] = 0;
-      
-      m_visited = newVisited;
+      addVertices(1);
+  }
+
+  /** 一次添加 count 个顶点，新顶点编号从当前顶点数开始连续分配 */
+  public void addVertices(int count) {
+      if (count <= 0) return;
+      ensureVertexCapacity(m_num_vertex + count);
+      m_num_vertex += count;
+      m_degree_count[0] += count;
+      touch();
+  }
+
+  /** 预留至少 n 个顶点的存储空间，容量不足时按两倍增长，避免逐个扩容的反复复制 */
+  public void ensureVertexCapacity(int n) {
+      int capacity = m_indegree.length;
+      if (n <= capacity) return;
+      int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(n, capacity * 2L));
+      m_visited = Arrays.copyOf(m_visited, newCapacity);
+      m_indegree = Arrays.copyOf(m_indegree, newCapacity);
+      m_outdegree = Arrays.copyOf(m_outdegree, newCapacity);
+      m_removed = Arrays.copyOf(m_removed, newCapacity);
+  }
+
+  /** 删除顶点：先删除其所有关联边，再把编号标记为墓碑并放入空闲列表，编号不会立即回收 */
+  public void removeVertex(int v) {
+      if (v < 0 || v >= m_num_vertex || m_removed[v]) return;
+
+      // 先收集再删除，避免一边遍历一边修改邻接表；出度已维护，数组一次分配到位
+      int[] out = new int[outDegree(v)];
+      int[] count = new int[1];
+      forEachNeighbor(v, (to, weight) -> {
+          if (count[0] < out.length) out[count[0]++] = to;
+      });
+      for (int i = 0; i < count[0]; i++) {
+          delEdge(v, out[i]);
+      }
+      // 有向图还要删除指向 v 的边
+      if (m_directed) {
+          for (int u : inNeighbors(v)) {
+              delEdge(u, v);
+          }
+      }
+
+      markRemoved(v);
+  }
+
+  /**
+   * 有向图中指向 v 的顶点。默认逐个探测所有顶点，O(V)；
+   * 维护了入邻接的子类（AdjListGraph、MatrixGraph）覆盖为按入度遍历。
+   */
+  protected int[] inNeighbors(int v) {
+      int[] sources = new int[inDegree(v)];
+      int count = 0;
+      Edge probe = new Edge();
+      probe.setMto(v);
+      for (int u = 0; u < m_num_vertex && count < sources.length; u++) {
+          if (m_removed[u]) continue;
+          probe.setMfrom(u);
+          if (isEdge(probe)) sources[count++] = u;
+      }
+      return count == sources.length ? sources : Arrays.copyOf(sources, count);
+  }
+
+  /** 把 v 标记为墓碑并放入空闲列表，调用前 v 应已没有关联边 */
+  void markRemoved(int v) {
+      m_removed[v] = true;
+      m_degree_count[0]--;
+      if (m_num_free == m_free.length) m_free = Arrays.copyOf(m_free, Math.max(8, m_num_free * 2));
+      m_free[m_num_free++] = v;
+      touch();
+  }
+
+  /** 快照构造时复制源图的墓碑，使遍历算法同样跳过已删除顶点 */
+  void copyTombstonesFrom(Graph source) {
+      for (int v = 0; v < m_num_vertex; v++) {
+          if (source.isVertexRemoved(v)) markRemoved(v);
+      }
+  }
+
+  public boolean isVertexRemoved(int v) {
+      return v >= 0 && v < m_num_vertex && m_removed[v];
+  }
+
+  /** 未被删除的顶点个数 */
+  public int liveVerticesNumber() {
+      return m_num_vertex - m_num_free;
+  }
+
+  /** 分配一个顶点编号：优先复用最近删除的编号，没有时追加新顶点 */
+  public int allocateVertex() {
+      if (m_num_free > 0) {
+          int v = m_free[--m_num_free];
+          m_removed[v] = false;
+          m_degree_count[0]++;
+          touch();
+          return v;
+      }
+      addVertex();
+      return m_num_vertex - 1;
+  }
+
+  /** 恢复一个指定的已删除顶点（不含原有的边） */
+  public void restoreVertex(int v) {
+      if (!isVertexRemoved(v)) return;
+      // 从栈顶往下找，撤销删除时要恢复的通常就是最近删除的编号
+      for (int i = m_num_free - 1; i >= 0; i--) {
+          if (m_free[i] == v) {
+              m_free[i] = m_free[--m_num_free];
+              break;
+          }
+      }
+      m_removed[v] = false;
+      m_degree_count[0]++;
+      touch();
+  }
+
+  /**
+   * 压缩顶点编号：去掉所有墓碑，把存活顶点按原顺序重新连续编号。
+   * @return 旧编号到新编号的映射，已删除的顶点映射为 -1
+   */
+  public int[] compact() {
+      int n = m_num_vertex;
+      int[] oldToNew = new int[n];
+      int next = 0;
+      for (int v = 0; v < n; v++) {
+          oldToNew[v] = m_removed[v] ? -1 : next++;
+      }
+      if (next == n) return oldToNew;
+
+      compactStorage(oldToNew, next);
+      int[] newIndegree = new int[next];
+      int[] newOutdegree = new int[next];
+      for (int v = 0; v < n; v++) {
+          if (oldToNew[v] >= 0) {
+              newIndegree[oldToNew[v]] = m_indegree[v];
+              newOutdegree[oldToNew[v]] = m_outdegree[v];
+          }
+      }
       m_indegree = newIndegree;
-      m_num_vertex = newSize;
+      m_outdegree = newOutdegree;
+      m_visited = new boolean[next];
+      m_removed = new boolean[next];
+      m_num_free = 0;
+      m_num_vertex = next;
+      touch();
+      return oldToNew;
+  }
+
+  /** 向已删除的顶点加边会破坏压缩时的编号映射，直接拒绝 */
+  protected void checkLiveVertex(int v) {
+      if (isVertexRemoved(v)) {
+          throw new IllegalStateException("顶点 " + v + " 已被删除");
+      }
   }
+
+  /** 子类按映射重排自己的存储；映射保持存活顶点的相对顺序，此时被删顶点已没有关联边 */
+  protected void compactStorage(int[] oldToNew, int newCount) {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " 不支持压缩顶点编号");
+  }
+  public boolean isDirected(){return m_directed;}
   public int verticesNumber(){return m_num_vertex;}
-  public int edgesNumber(){return m_num_edge;}
-  protected void incEdgeNumber() {
-        m_num_edge++;
-    }
-  protected void decEdgeNumber() {
-        m_num_edge--;
-    }
-  protected void incIndegree(int v) {
-        m_indegree[v]++;
-    }
-  protected void decIndegree(int v) {
-        m_indegree[v]--;
-    }
+  public int edgesNumber(){return arcsNumber();}
+  /** 已存储的有向邻接项数，无向边（自环除外）在两个方向各计一次 */
+  protected int arcsNumber() {
+      return m_num_edge;
+  }
+
+  /** 修改版本号，缓存的计算结果（如 ShortestPathCache）据此判断是否过期 */
+  public long version() {
+      return m_version;
+  }
+
+  /** 递增版本号；统计钩子和顶点操作已自动调用，子类只需在修改已有边的权重时调用 */
+  protected void touch() {
+      m_version++;
+  }
+
+  /** 子类每存入一个 from -> to 邻接项时调用，同步维护边数、出入度和度数直方图 */
+  protected void onArcAdded(int from, int to) {
+      touch();
+      m_num_edge++;
+      int before = ownDegree(from);
+      m_outdegree[from]++;
+      moveDegree(before, ownDegree(from));
+      before = ownDegree(to);
+      m_indegree[to]++;
+      moveDegree(before, ownDegree(to));
+  }
+
+  /** 子类每删除一个 from -> to 邻接项时调用 */
+  protected void onArcRemoved(int from, int to) {
+      touch();
+      m_num_edge--;
+      int before = ownDegree(from);
+      m_outdegree[from]--;
+      moveDegree(before, ownDegree(from));
+      before = ownDegree(to);
+      m_indegree[to]--;
+      moveDegree(before, ownDegree(to));
+  }
+
+  /** 清空所有边后调用，O(V) 重置全部计数 */
+  protected void resetEdgeStatistics() {
+      touch();
+      m_num_edge = 0;
+      Arrays.fill(m_indegree, 0, m_num_vertex, 0);
+      Arrays.fill(m_outdegree, 0, m_num_vertex, 0);
+      m_degree_count = new int[8];
+      m_degree_count[0] = liveVerticesNumber();
+      m_max_degree = 0;
+  }
+
+  /** 按给定的出入度一次性重建统计信息，供批量建图和快照使用 */
+  void rebuildStatistics(int[] outDegree, int[] inDegree, int arcs) {
+      m_num_edge = arcs;
+      System.arraycopy(outDegree, 0, m_outdegree, 0, m_num_vertex);
+      System.arraycopy(inDegree, 0, m_indegree, 0, m_num_vertex);
+      m_max_degree = 0;
+      for (int v = 0; v < m_num_vertex; v++) {
+          if (!m_removed[v]) m_max_degree = Math.max(m_max_degree, ownDegree(v));
+      }
+      m_degree_count = new int[m_max_degree + 1];
+      for (int v = 0; v < m_num_vertex; v++) {
+          if (!m_removed[v]) m_degree_count[ownDegree(v)]++;
+      }
+  }
+
+  /** 从 CSR 数组统计出入度并重建统计信息，O(V + E) */
+  void rebuildStatistics(int[] offsets, int[] targets) {
+      int n = offsets.length - 1;
+      int[] outDegree = new int[n];
+      int[] inDegree = new int[n];
+      for (int v = 0; v < n; v++) {
+          outDegree[v] = offsets[v + 1] - offsets[v];
+      }
+      for (int i = 0; i < offsets[n]; i++) {
+          inDegree[targets[i]]++;
+      }
+      rebuildStatistics(outDegree, inDegree, offsets[n]);
+  }
+
+  private int ownDegree(int v) {
+      return m_directed ? m_outdegree[v] + m_indegree[v] : m_outdegree[v];
+  }
+
+  /** 度数每次只变化 1，最大度数可以随直方图 O(1) 维护 */
+  private void moveDegree(int before, int after) {
+      if (before == after) return;
+      if (after >= m_degree_count.length) {
+          m_degree_count = Arrays.copyOf(m_degree_count, Math.max(after + 1, m_degree_count.length * 2));
+      }
+      m_degree_count[before]--;
+      m_degree_count[after]++;
+      if (after > m_max_degree) {
+          m_max_degree = after;
+      } else if (before == m_max_degree && m_degree_count[before] == 0) {
+          m_max_degree = after;
+      }
+  }
+
+  /** 顶点 v 的入度，O(1) */
+  public int inDegree(int v) {
+      return m_indegree[v];
+  }
+
+  /** 顶点 v 的出度，O(1) */
+  public int outDegree(int v) {
+      return m_outdegree[v];
+  }
+
+  /** 顶点 v 的度数：无向图为关联边数，有向图为出度与入度之和 */
+  public int degree(int v) {
+      return isDirected() ? outDegree(v) + inDegree(v) : outDegree(v);
+  }
+
+  /** 存活顶点中的最大度数，O(1) */
+  public int maxDegree() {
+      return m_max_degree;
+  }
+
+  /** 度数直方图：下标为度数，值为该度数的存活顶点个数，长度为 maxDegree() + 1 */
+  public int[] degreeHistogram() {
+      return Arrays.copyOf(m_degree_count, m_max_degree + 1);
+  }
+
+  /** 稠密度：已存储的邻接项数 / V(V-1)，无向图即 2E / V(V-1)，O(1) */
+  public double density() {
+      long n = liveVerticesNumber();
+      return n < 2 ? 0 : arcsNumber() / (double) (n * (n - 1));
+  }
+  /** 获取所有边：无向图每条边只返回 from < to 的一个方向，有向图返回全部有向边 */
+  public Edge[] getAllEdge() {
+      int n = verticesNumber();
+      List<Edge> allEdges = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+          if (m_removed[i]) continue;
+          final int from = i;
+          forEachNeighbor(i, (to, weight) -> {
+              if (m_directed || from < to) {
+                  allEdges.add(new Edge(from, to, weight));
+              }
+          });
+      }
+      return allEdges.toArray(new Edge[0]);
+  }
   public abstract Edge firstEdge(int onevertex);
   public abstract Edge nextEdge(Edge pre);
+  public abstract void forEachNeighbor(int onevertex, NeighborConsumer action);
   public abstract void setEdge(int from, int to, int weight);
   public abstract void delEdge(int from, int to);
   public abstract boolean isEdge(Edge edge);
   public abstract void clearAllEdges();
-  public abstract void generateRandomGraph();
+
+  /** 随机生成连通图，只使用未被删除的顶点 */
+  public void generateRandomGraph() {
+      clearAllEdges(); // 先清空所有边
+
+      int[] live = new int[liveVerticesNumber()];
+      int n = 0;
+      for (int v = 0; v < m_num_vertex; v++) {
+          if (!m_removed[v]) live[n++] = v;
+      }
+      if (n <= 1) return;
+
+      // 确保图连通：生成一个生成树
+      for (int i = 1; i < n; i++) {
+          int from = live[(int)(Math.random() * i)];
+          int weight = (int)(Math.random() * 10) + 1; // 权重1-10
+          setEdge(from, live[i], weight);
+      }
+
+      // 随机添加一些额外边
+      int extraEdges = (int)(Math.random() * (n * 2)) + n; // 额外边数：n到3n之间
+      for (int i = 0; i < extraEdges; i++) {
+          int from = live[(int)(Math.random() * n)];
+          int to = live[(int)(Math.random() * n)];
+          if (from != to) {
+              int weight = (int)(Math.random() * 10) + 1;
+              setEdge(from, to, weight);
+          }
+      }
+  }
 }
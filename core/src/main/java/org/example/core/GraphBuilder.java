@@ -0,0 +1,148 @@
+package org.example.core;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * 批量建图工具：先把边收集到原始类型数组中，build 时一次性排序、去重并生成图，
+ * 整体 O(E log E)，避免逐条 setEdge 的有序插入开销。
+ * 与 setEdge 语义一致：无向图的边两个方向都会存储，有向图只存 from -> to，
+ * 重复的边以最后一次添加的权重为准。
+ */
+public class GraphBuilder {
+    /** 边数超过该值时按行并行排序 */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private int numVertex;
+    private final boolean directed;
+    private int[] froms = new int[16];
+    private int[] tos = new int[16];
+    private int[] weights = new int[16];
+    private int edgeCount;
+
+    public GraphBuilder(int numvertex) {
+        this(numvertex, false);
+    }
+
+    public GraphBuilder(int numvertex, boolean directed) {
+        this.numVertex = numvertex;
+        this.directed = directed;
+    }
+
+    /** 添加一条边，顶点编号超出当前顶点数时自动扩充 */
+    public GraphBuilder addEdge(int from, int to, int weight) {
+        if (from < 0 || to < 0) {
+            throw new IllegalArgumentException("顶点编号不能为负: " + from + "-" + to);
+        }
+        if (edgeCount == froms.length) {
+            grow(edgeCount + 1);
+        }
+        froms[edgeCount] = from;
+        tos[edgeCount] = to;
+        weights[edgeCount] = weight;
+        edgeCount++;
+        numVertex = Math.max(numVertex, Math.max(from, to) + 1);
+        return this;
+    }
+
+    /** 批量添加边，三个数组按下标一一对应 */
+    public GraphBuilder addEdges(int[] from, int[] to, int[] weight) {
+        if (from.length != to.length || from.length != weight.length) {
+            throw new IllegalArgumentException("边数组长度不一致");
+        }
+        grow(edgeCount + from.length);
+        for (int i = 0; i < from.length; i++) {
+            addEdge(from[i], to[i], weight[i]);
+        }
+        return this;
+    }
+
+    /** 保证生成的图至少有 n 个顶点，用于没有边的孤立顶点 */
+    public GraphBuilder ensureVertices(int n) {
+        numVertex = Math.max(numVertex, n);
+        return this;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    public AdjListGraph buildAdjList() {
+        int[][] csr = buildArrays();
+        return new AdjListGraph(csr[0], csr[1], csr[2], directed);
+    }
+
+    public CsrGraph buildCsr() {
+        int[][] csr = buildArrays();
+        return new CsrGraph(csr[0], csr[1], csr[2], directed);
+    }
+
+    /** 生成去重后的 {offsets, targets, weights} 三个数组 */
+    private int[][] buildArrays() {
+        int n = numVertex;
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[froms[i] + 1]++;
+            if (!directed && froms[i] != tos[i]) offsets[tos[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        // 计数排序按起点分桶，桶内键为 (目标 << 32 | 边序号)，排序后同一目标的最后一条即最新权重
+        long[] keys = new long[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < edgeCount; i++) {
+            keys[fill[froms[i]]++] = ((long) tos[i] << 32) | i;
+            if (!directed && froms[i] != tos[i]) keys[fill[tos[i]]++] = ((long) froms[i] << 32) | i;
+        }
+        sortRows(keys, offsets, n);
+
+        int[] outOffsets = new int[n + 1];
+        int[] outTargets = new int[keys.length];
+        int[] outWeights = new int[keys.length];
+        int pos = 0;
+        for (int v = 0; v < n; v++) {
+            int end = offsets[v + 1];
+            for (int j = offsets[v]; j < end; j++) {
+                int target = (int) (keys[j] >>> 32);
+                if (j + 1 < end && (int) (keys[j + 1] >>> 32) == target) {
+                    continue; // 重复边，保留后添加的那一条
+                }
+                outTargets[pos] = target;
+                outWeights[pos] = weights[(int) keys[j]];
+                pos++;
+            }
+            outOffsets[v + 1] = pos;
+        }
+        if (pos < keys.length) {
+            outTargets = Arrays.copyOf(outTargets, pos);
+            outWeights = Arrays.copyOf(outWeights, pos);
+        }
+        return new int[][]{outOffsets, outTargets, outWeights};
+    }
+
+    private static void sortRows(long[] keys, int[] offsets, int n) {
+        if (keys.length < PARALLEL_THRESHOLD) {
+            for (int v = 0; v < n; v++) {
+                Arrays.sort(keys, offsets[v], offsets[v + 1]);
+            }
+            return;
+        }
+        IntStream.range(0, n).parallel().forEach(v -> {
+            if (offsets[v + 1] - offsets[v] >= PARALLEL_THRESHOLD) {
+                Arrays.parallelSort(keys, offsets[v], offsets[v + 1]); // 度数极大的顶点单独并行排序
+            } else {
+                Arrays.sort(keys, offsets[v], offsets[v + 1]);
+            }
+        });
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity <= froms.length) return;
+        int newCapacity = Math.max(minCapacity, froms.length * 2);
+        froms = Arrays.copyOf(froms, newCapacity);
+        tos = Arrays.copyOf(tos, newCapacity);
+        weights = Arrays.copyOf(weights, newCapacity);
+    }
+}
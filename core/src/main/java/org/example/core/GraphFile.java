@@ -0,0 +1,398 @@
+package org.example.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * 二进制图文件，文本 .graph 格式的紧凑替代。
+ * 所有数据为小端，各段按 8 字节对齐，可以直接映射为 MappedGraph，或整段读入 CsrGraph 的数组，不需要逐项解析。
+ * 布局：64 字节文件头（magic、version、flags、顶点数 n、邻接项数 m、CRC32、文件头长度，其余保留为 0），
+ * 随后依次是 offsets[n+1]、targets[m]、weights[m]；
+ * 有删除顶点时接着是 long[(n+63)/64] 的墓碑位图，有坐标时最后是 x[n]、y[n] 两个 double 数组。
+ * 每段之后补 0 到 8 字节边界，段与段之间的填充也计入 CRC32。
+ * CRC32 覆盖文件头之后的全部内容以及校验字段置 0 的文件头。
+ */
+public final class GraphFile {
+    static final int MAGIC = 0x52474B48; // "HKGR"
+    static final int VERSION = 4;
+    static final int HEADER_BYTES = 64;
+    static final int FLAG_DIRECTED = 1;
+    static final int FLAG_TOMBSTONES = 2;
+    static final int FLAG_COORDINATES = 4;
+    static final int CHECKSUM_POSITION = 20;
+
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+    private static final long VERIFY_CHUNK_BYTES = 1L << 30;
+
+    private GraphFile() {
+    }
+
+    /** 解析后的文件头以及各段在文件中的位置 */
+    static final class Header {
+        final int flags;
+        final int vertices;
+        final int arcs;
+        final int checksum;
+        final long offsetsPos;
+        final long targetsPos;
+        final long weightsPos;
+        final long tombstonesPos;
+        final long coordinatesPos;
+        final long end;
+
+        Header(int flags, int vertices, int arcs, int checksum) {
+            this.flags = flags;
+            this.vertices = vertices;
+            this.arcs = arcs;
+            this.checksum = checksum;
+            offsetsPos = HEADER_BYTES;
+            targetsPos = align(offsetsPos + ((long) vertices + 1) * Integer.BYTES);
+            weightsPos = align(targetsPos + (long) arcs * Integer.BYTES);
+            tombstonesPos = align(weightsPos + (long) arcs * Integer.BYTES);
+            coordinatesPos = tombstonesPos + (hasTombstones() ? (long) tombstoneWords(vertices) * Long.BYTES : 0);
+            end = coordinatesPos + (hasCoordinates() ? 2L * vertices * Double.BYTES : 0);
+        }
+
+        boolean isDirected() {
+            return (flags & FLAG_DIRECTED) != 0;
+        }
+
+        boolean hasTombstones() {
+            return (flags & FLAG_TOMBSTONES) != 0;
+        }
+
+        boolean hasCoordinates() {
+            return (flags & FLAG_COORDINATES) != 0;
+        }
+    }
+
+    /** 读取并检查文件头，确认文件长度与头中的顶点数、边数一致 */
+    static Header readHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // 读满文件头（文件可能比 64 字节短）
+        }
+        buffer.flip();
+        if (buffer.remaining() < 8 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("不是有效的图文件: " + file);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("不支持的图文件版本: " + version);
+        }
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(24) != HEADER_BYTES) {
+            throw new IOException("图文件已损坏: " + file);
+        }
+        int n = buffer.getInt(12);
+        int m = buffer.getInt(16);
+        if (n < 0 || m < 0) {
+            throw new IOException("图文件已损坏: " + file);
+        }
+        Header header = new Header(buffer.getInt(8), n, m, buffer.getInt(CHECKSUM_POSITION));
+        if (channel.size() < header.end) {
+            throw new IOException("图文件已损坏: " + file);
+        }
+        return header;
+    }
+
+    /** 映射为只读图，只读文件头和墓碑位图，不校验 CRC；需要时先调用 verify */
+    public static MappedGraph map(Path file) throws IOException {
+        return MappedGraph.open(file);
+    }
+
+    /** 把各段整块读入数组，生成 CsrGraph；读入前先校验 CRC */
+    public static CsrGraph readCsr(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, file);
+            verify(channel, header, file);
+            int[] offsets = new int[header.vertices + 1];
+            int[] targets = new int[header.arcs];
+            int[] weights = new int[header.arcs];
+            ByteBuffer buffer = ioBuffer();
+            readInts(channel, buffer, header.offsetsPos, offsets);
+            readInts(channel, buffer, header.targetsPos, targets);
+            readInts(channel, buffer, header.weightsPos, weights);
+            checkOffsets(offsets, header, file);
+            for (int t : targets) {
+                if (t < 0 || t >= header.vertices) throw new IOException("图文件已损坏: " + file);
+            }
+            CsrGraph graph = new CsrGraph(offsets, targets, weights, header.isDirected());
+            applyTombstones(channel, header, graph);
+            return graph;
+        }
+    }
+
+    /** 读取顶点坐标，返回 {x, y}；文件中没有坐标时返回 null */
+    public static double[][] readCoordinates(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, file);
+            if (!header.hasCoordinates()) return null;
+            double[] xs = new double[header.vertices];
+            double[] ys = new double[header.vertices];
+            ByteBuffer buffer = ioBuffer();
+            readDoubles(channel, buffer, header.coordinatesPos, xs);
+            readDoubles(channel, buffer, header.coordinatesPos + (long) header.vertices * Double.BYTES, ys);
+            return new double[][]{xs, ys};
+        }
+    }
+
+    /** 重新计算 CRC32 并与文件头比较，不一致时抛出 IOException */
+    public static void verify(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            verify(channel, readHeader(channel, file), file);
+        }
+    }
+
+    private static void verify(FileChannel channel, Header header, Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        // 按块映射后交给 CRC32，避免复制到堆上
+        for (long pos = HEADER_BYTES; pos < header.end; pos += VERIFY_CHUNK_BYTES) {
+            MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, pos,
+                    Math.min(VERIFY_CHUNK_BYTES, header.end - pos));
+            crc.update(chunk);
+        }
+        ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (head.hasRemaining() && channel.read(head, head.position()) >= 0) {
+            // 读满文件头
+        }
+        head.putInt(CHECKSUM_POSITION, 0);
+        head.flip();
+        crc.update(head);
+        if ((int) crc.getValue() != header.checksum) {
+            throw new IOException("图文件校验失败: " + file);
+        }
+    }
+
+    /** 写入图，不带坐标 */
+    public static void write(Graph graph, Path file) throws IOException {
+        write(graph, null, null, file);
+    }
+
+    /**
+     * 写入图以及可选的顶点坐标（xs、ys 同为 null 或长度都不小于顶点数）。
+     * 已删除的顶点写入墓碑位图，读取后依然是删除状态。
+     */
+    public static void write(Graph graph, double[] xs, double[] ys, Path file) throws IOException {
+        CsrGraph csr = csrOf(graph);
+        int n = csr.offsets().length - 1;
+        boolean coordinates = xs != null || ys != null;
+        if (coordinates && (xs == null || ys == null || xs.length < n || ys.length < n)) {
+            throw new IllegalArgumentException("坐标数组长度与顶点数不一致");
+        }
+        long[] tombstones = null;
+        for (int v = 0; v < n; v++) {
+            if (graph.isVertexRemoved(v)) {
+                if (tombstones == null) tombstones = new long[tombstoneWords(n)];
+                tombstones[v >>> 6] |= 1L << v;
+            }
+        }
+        int flags = (graph.isDirected() ? FLAG_DIRECTED : 0)
+                | (tombstones != null ? FLAG_TOMBSTONES : 0)
+                | (coordinates ? FLAG_COORDINATES : 0);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_BYTES); // 文件头在最后写入
+            Writer writer = new Writer(channel);
+            writer.ints(csr.offsets(), n + 1);
+            writer.pad((int) (align(writer.position()) - writer.position()));
+            writer.ints(csr.targets(), csr.targets().length);
+            writer.pad((int) (align(writer.position()) - writer.position()));
+            writer.ints(csr.weights(), csr.weights().length);
+            writer.pad((int) (align(writer.position()) - writer.position()));
+            if (tombstones != null) writer.longs(tombstones);
+            if (coordinates) {
+                writer.doubles(xs, n);
+                writer.doubles(ys, n);
+            }
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            head.putInt(MAGIC).putInt(VERSION).putInt(flags).putInt(n).putInt(csr.targets().length)
+                    .putInt(0).putInt(HEADER_BYTES);
+            writer.finish(head);
+        }
+    }
+
+    /** 顺序写出文件头之后的各段，同时累计 CRC32；路标表文件也使用同样的布局 */
+    static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ioBuffer();
+        private final CRC32 crc = new CRC32();
+        private long flushed = HEADER_BYTES;
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /** 下一个字节在文件中的位置 */
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void ints(int[] values, int count) throws IOException {
+            for (int i = 0; i < count; ) {
+                if (buffer.remaining() < Integer.BYTES) flush();
+                int len = Math.min(count - i, buffer.remaining() / Integer.BYTES);
+                IntBuffer view = buffer.asIntBuffer();
+                view.put(values, i, len);
+                buffer.position(buffer.position() + len * Integer.BYTES);
+                i += len;
+            }
+        }
+
+        void longs(long[] values) throws IOException {
+            for (int i = 0; i < values.length; ) {
+                if (buffer.remaining() < Long.BYTES) flush();
+                int len = Math.min(values.length - i, buffer.remaining() / Long.BYTES);
+                LongBuffer view = buffer.asLongBuffer();
+                view.put(values, i, len);
+                buffer.position(buffer.position() + len * Long.BYTES);
+                i += len;
+            }
+        }
+
+        void doubles(double[] values, int count) throws IOException {
+            for (int i = 0; i < count; ) {
+                if (buffer.remaining() < Double.BYTES) flush();
+                int len = Math.min(count - i, buffer.remaining() / Double.BYTES);
+                DoubleBuffer view = buffer.asDoubleBuffer();
+                view.put(values, i, len);
+                buffer.position(buffer.position() + len * Double.BYTES);
+                i += len;
+            }
+        }
+
+        void pad(int bytes) throws IOException {
+            for (int i = 0; i < bytes; i++) {
+                if (!buffer.hasRemaining()) flush();
+                buffer.put((byte) 0);
+            }
+        }
+
+        /** 写出剩余数据，再把 CRC32 填入 64 字节的文件头（校验字段为 0）并写到文件开头 */
+        void finish(ByteBuffer head) throws IOException {
+            flush();
+            head.clear();
+            crc.update(head);
+            head.clear();
+            head.putInt(CHECKSUM_POSITION, (int) crc.getValue());
+            while (head.hasRemaining()) channel.write(head, head.position());
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            flushed += buffer.remaining();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+    }
+
+    /** 转成邻居有序的 CSR 数组；邻接表和矩阵走各自的 toCsr，其他图按行收集后排序 */
+    private static CsrGraph csrOf(Graph graph) {
+        if (graph instanceof CsrGraph) return (CsrGraph) graph;
+        if (graph instanceof AdjListGraph) return ((AdjListGraph) graph).toCsr();
+        if (graph instanceof MatrixGraph) return ((MatrixGraph) graph).toCsr();
+        int n = graph.verticesNumber();
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int[] degree = new int[1];
+            graph.forEachNeighbor(v, (to, weight) -> degree[0]++);
+            offsets[v + 1] = offsets[v] + degree[0];
+        }
+        // 键为 (目标 << 32 | 权重)，行内同一目标只有一项，排序即按目标升序
+        long[] keys = new long[offsets[n]];
+        for (int v = 0; v < n; v++) {
+            int[] pos = {offsets[v]};
+            graph.forEachNeighbor(v, (to, weight) -> keys[pos[0]++] = ((long) to << 32) | (weight & 0xFFFFFFFFL));
+            Arrays.sort(keys, offsets[v], offsets[v + 1]);
+        }
+        int[] targets = new int[keys.length];
+        int[] weights = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            targets[i] = (int) (keys[i] >>> 32);
+            weights[i] = (int) keys[i];
+        }
+        return new CsrGraph(offsets, targets, weights, graph.isDirected());
+    }
+
+    /** 读取墓碑位图并标记对应顶点，读出的图和写入时一样跳过这些顶点 */
+    static void applyTombstones(FileChannel channel, Header header, Graph graph) throws IOException {
+        if (!header.hasTombstones()) return;
+        long[] words = new long[tombstoneWords(header.vertices)];
+        ByteBuffer buffer = ioBuffer();
+        long pos = header.tombstonesPos;
+        for (int i = 0; i < words.length; ) {
+            int len = Math.min(words.length - i, buffer.capacity() / Long.BYTES);
+            fill(channel, buffer, pos, len * Long.BYTES);
+            buffer.asLongBuffer().get(words, i, len);
+            pos += (long) len * Long.BYTES;
+            i += len;
+        }
+        for (int v = 0; v < header.vertices; v++) {
+            if ((words[v >>> 6] & (1L << v)) != 0) graph.markRemoved(v);
+        }
+    }
+
+    /** offsets 必须从 0 开始单调不减且以 m 结尾，否则遍历会越界 */
+    static void checkOffsets(int[] offsets, Header header, Path file) throws IOException {
+        if (offsets[0] != 0 || offsets[header.vertices] != header.arcs) {
+            throw new IOException("图文件已损坏: " + file);
+        }
+        for (int v = 0; v < header.vertices; v++) {
+            if (offsets[v + 1] < offsets[v]) throw new IOException("图文件已损坏: " + file);
+        }
+    }
+
+    private static void readInts(FileChannel channel, ByteBuffer buffer, long pos, int[] out) throws IOException {
+        for (int i = 0; i < out.length; ) {
+            int len = Math.min(out.length - i, buffer.capacity() / Integer.BYTES);
+            fill(channel, buffer, pos, len * Integer.BYTES);
+            buffer.asIntBuffer().get(out, i, len);
+            pos += (long) len * Integer.BYTES;
+            i += len;
+        }
+    }
+
+    private static void readDoubles(FileChannel channel, ByteBuffer buffer, long pos, double[] out) throws IOException {
+        for (int i = 0; i < out.length; ) {
+            int len = Math.min(out.length - i, buffer.capacity() / Double.BYTES);
+            fill(channel, buffer, pos, len * Double.BYTES);
+            buffer.asDoubleBuffer().get(out, i, len);
+            pos += (long) len * Double.BYTES;
+            i += len;
+        }
+    }
+
+    /** 从 pos 开始读满 bytes 个字节，缓冲区翻转为可读状态 */
+    static void fill(FileChannel channel, ByteBuffer buffer, long pos, int bytes) throws IOException {
+        buffer.clear().limit(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, pos + buffer.position()) < 0) {
+                throw new IOException("图文件意外结束");
+            }
+        }
+        buffer.flip();
+    }
+
+    static ByteBuffer ioBuffer() {
+        return ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int tombstoneWords(int n) {
+        return (int) (((long) n + 63) >>> 6);
+    }
+
+    private static long align(long pos) {
+        return (pos + 7) & ~7L;
+    }
+}
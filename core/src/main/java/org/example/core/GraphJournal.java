@@ -0,0 +1,266 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * 图编辑日志，提供撤销/重做。
+ * 修改通过日志进行，每次修改记录为一条定长的 int 记录（操作、两个顶点、旧权重、新权重、批次号），
+ * 撤销和重做只按记录反向或正向重放，每条记录 O(1)，不复制整个图。
+ * 同一批次内的记录一起撤销和重做；删除顶点会先把关联边逐条记为删除，再记录顶点本身，恢复时边随之恢复。
+ * 直接修改图（绕过日志）或调用 compact/clearAllEdges 后，应先 clear 日志。
+ * 记录的是 int 权重，long/double 权重的图撤销后恢复的是其 int 视图。
+ */
+public class GraphJournal {
+    private static final int SET_NEW = 0;      // 新增边：a -> b，权重 next
+    private static final int SET_UPDATE = 1;   // 修改权重：a -> b，prev -> next
+    private static final int DEL = 2;          // 删除边：a -> b，原权重 prev
+    private static final int ADD_VERTICES = 3; // 追加顶点：从 a 开始的 b 个
+    private static final int ALLOCATE = 4;     // 分配顶点 a（可能复用已删除的编号）
+    private static final int REMOVE = 5;       // 删除顶点 a，关联边已由前面的 DEL 记录
+    private static final int RESTORE = 6;      // 恢复已删除的顶点 a
+
+    private static final int OP = 0, A = 1, B = 2, PREV = 3, NEXT = 4, GROUP = 5;
+    private static final int RECORD_INTS = 6;
+
+    private final Graph graph;
+    private int[] records = new int[RECORD_INTS * 64];
+    private int size;   // 记录条数，含可重做的部分
+    private int cursor; // 已生效的记录条数，[cursor, size) 为可重做的记录
+    private int nextGroup;
+    private int batchDepth;
+    private int batchGroup;
+    private final Edge probe = new Edge();
+    private int foundWeight;
+
+    public GraphJournal(Graph graph) {
+        this.graph = graph;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /** 开始一个批次，可以嵌套，最外层 endBatch 之前的修改作为一步撤销 */
+    public void beginBatch() {
+        if (batchDepth++ == 0) batchGroup = nextGroup++;
+    }
+
+    public void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("没有进行中的批次");
+        }
+        batchDepth--;
+    }
+
+    public void setEdge(int from, int to, int weight) {
+        boolean existed = lookup(from, to);
+        int prev = foundWeight;
+        graph.setEdge(from, to, weight);
+        record(existed ? SET_UPDATE : SET_NEW, from, to, prev, weight);
+    }
+
+    /** 边不存在时不做任何事，也不产生记录 */
+    public void delEdge(int from, int to) {
+        if (!lookup(from, to)) return;
+        int prev = foundWeight;
+        graph.delEdge(from, to);
+        record(DEL, from, to, prev, 0);
+    }
+
+    /** 追加 count 个顶点，返回第一个新顶点的编号 */
+    public int addVertices(int count) {
+        int first = graph.verticesNumber();
+        if (count <= 0) return first;
+        graph.addVertices(count);
+        record(ADD_VERTICES, first, count, 0, 0);
+        return first;
+    }
+
+    public int allocateVertex() {
+        int v = graph.allocateVertex();
+        record(ALLOCATE, v, 0, 0, 0);
+        return v;
+    }
+
+    public void restoreVertex(int v) {
+        if (!graph.isVertexRemoved(v)) return;
+        graph.restoreVertex(v);
+        record(RESTORE, v, 0, 0, 0);
+    }
+
+    /**
+     * 删除顶点及其关联边，O(出度 + 入度)：出边用 forEachNeighbor 收集，
+     * 有向图的入边取自 Graph.inNeighbors（AdjListGraph、MatrixGraph 按入度遍历）。
+     */
+    public void removeVertex(int v) {
+        if (v < 0 || v >= graph.verticesNumber() || graph.isVertexRemoved(v)) return;
+        beginBatch();
+        try {
+            // 先收集再删除，避免一边遍历一边修改邻接表
+            int[] neighbors = new int[graph.outDegree(v)];
+            int[] weights = new int[neighbors.length];
+            int[] count = new int[1];
+            graph.forEachNeighbor(v, (to, weight) -> {
+                if (count[0] < neighbors.length) {
+                    neighbors[count[0]] = to;
+                    weights[count[0]++] = weight;
+                }
+            });
+            for (int i = 0; i < count[0]; i++) {
+                graph.delEdge(v, neighbors[i]);
+                record(DEL, v, neighbors[i], weights[i], 0);
+            }
+            if (graph.isDirected()) {
+                // 出边已删除，自环不会再出现在入邻接中
+                for (int u : graph.inNeighbors(v)) {
+                    if (!lookup(u, v)) continue;
+                    graph.delEdge(u, v);
+                    record(DEL, u, v, foundWeight, 0);
+                }
+            }
+            graph.removeVertex(v);
+            record(REMOVE, v, 0, 0, 0);
+        } finally {
+            endBatch();
+        }
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < size;
+    }
+
+    /** 撤销最近的一个批次（或一次单独的修改），没有可撤销的内容时返回 false */
+    public boolean undo() {
+        checkNoBatch();
+        if (cursor == 0) return false;
+        int group = records[(cursor - 1) * RECORD_INTS + GROUP];
+        while (cursor > 0 && records[(cursor - 1) * RECORD_INTS + GROUP] == group) {
+            revert(--cursor * RECORD_INTS);
+        }
+        return true;
+    }
+
+    /** 重做下一个批次，没有可重做的内容时返回 false */
+    public boolean redo() {
+        checkNoBatch();
+        if (cursor == size) return false;
+        int group = records[cursor * RECORD_INTS + GROUP];
+        while (cursor < size && records[cursor * RECORD_INTS + GROUP] == group) {
+            apply(cursor++ * RECORD_INTS);
+        }
+        return true;
+    }
+
+    /** 丢弃全部记录，图保持当前状态 */
+    public void clear() {
+        checkNoBatch();
+        size = 0;
+        cursor = 0;
+        if (records.length > RECORD_INTS * 1024) records = new int[RECORD_INTS * 64];
+    }
+
+    /** 已生效的记录条数 */
+    public int size() {
+        return cursor;
+    }
+
+    /** 查找边 from -> to，存在时权重放在 foundWeight 中 */
+    private boolean lookup(int from, int to) {
+        probe.setMfrom(from);
+        probe.setMto(to);
+        if (!graph.isEdge(probe)) {
+            foundWeight = 0;
+            return false;
+        }
+        if (graph instanceof AdjListGraph) {
+            foundWeight = ((AdjListGraph) graph).getEdge(from, to);
+        } else if (graph instanceof MatrixGraph) {
+            foundWeight = ((MatrixGraph) graph).getEdge(from, to);
+        } else {
+            graph.forEachNeighbor(from, (v, w) -> {
+                if (v == to) foundWeight = w;
+            });
+        }
+        return true;
+    }
+
+    private void checkNoBatch() {
+        if (batchDepth > 0) {
+            throw new IllegalStateException("批次尚未结束");
+        }
+    }
+
+    /** 追加一条记录；新的修改使之前撤销的记录不能再重做 */
+    private void record(int op, int a, int b, int prev, int next) {
+        size = cursor;
+        int pos = size * RECORD_INTS;
+        if (pos == records.length) {
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+        records[pos + OP] = op;
+        records[pos + A] = a;
+        records[pos + B] = b;
+        records[pos + PREV] = prev;
+        records[pos + NEXT] = next;
+        records[pos + GROUP] = batchDepth > 0 ? batchGroup : nextGroup++;
+        size++;
+        cursor = size;
+    }
+
+    private void revert(int pos) {
+        int a = records[pos + A];
+        int b = records[pos + B];
+        switch (records[pos + OP]) {
+            case SET_NEW:
+                graph.delEdge(a, b);
+                break;
+            case SET_UPDATE:
+            case DEL:
+                graph.setEdge(a, b, records[pos + PREV]);
+                break;
+            case ADD_VERTICES:
+                // 顶点数不能缩小，追加的顶点改为墓碑，重做时再恢复
+                for (int v = a + b - 1; v >= a; v--) graph.removeVertex(v);
+                break;
+            case ALLOCATE:
+            case RESTORE:
+                graph.removeVertex(a);
+                break;
+            case REMOVE:
+                graph.restoreVertex(a);
+                break;
+            default:
+                throw new IllegalStateException("未知的日志记录: " + records[pos + OP]);
+        }
+    }
+
+    private void apply(int pos) {
+        int a = records[pos + A];
+        int b = records[pos + B];
+        switch (records[pos + OP]) {
+            case SET_NEW:
+            case SET_UPDATE:
+                graph.setEdge(a, b, records[pos + NEXT]);
+                break;
+            case DEL:
+                graph.delEdge(a, b);
+                break;
+            case ADD_VERTICES:
+                for (int v = a; v < a + b; v++) graph.restoreVertex(v);
+                break;
+            case ALLOCATE:
+            case RESTORE:
+                graph.restoreVertex(a);
+                break;
+            case REMOVE:
+                graph.removeVertex(a);
+                break;
+            default:
+                throw new IllegalStateException("未知的日志记录: " + records[pos + OP]);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package org.example.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * .graph 文本格式的加载器，不依赖界面。
+ * 每行一条记录：顶点 "V,id,x,y"，边 "E,from,to,weight"，单独一行 "directed" 表示有向图（写在所有边之前），其他行忽略。
+ * 文件通过 FileChannel 分块读入同一个缓冲区反复使用，数字直接从字节数组解析，整个过程不创建 String，
+ * 大文件的加载速度取决于磁盘而不是垃圾回收。
+ */
+public final class GraphTextLoader {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final byte[] DIRECTED = "directed".getBytes(StandardCharsets.US_ASCII);
+
+    /** 逐条接收解析出的记录，按文件中的顺序回调 */
+    public interface RecordHandler {
+        void vertex(int id, double x, double y);
+
+        void edge(int from, int to, int weight);
+
+        /** 读到 "directed" 行，之后的边都是有向边 from -> to */
+        default void directed() {
+        }
+    }
+
+    /** load 的结果：收集了所有边的建图器，以及顶点记录中的坐标 */
+    public static final class Result {
+        private final GraphBuilder builder;
+        private int[] ids = new int[16];
+        private double[] xs = new double[16];
+        private double[] ys = new double[16];
+        private int vertexCount;
+
+        Result(GraphBuilder builder) {
+            this.builder = builder;
+        }
+
+        void addVertex(int id, double x, double y) {
+            if (vertexCount == ids.length) {
+                int capacity = vertexCount * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+            }
+            ids[vertexCount] = id;
+            xs[vertexCount] = x;
+            ys[vertexCount] = y;
+            vertexCount++;
+        }
+
+        /** 顶点数覆盖所有出现过的编号，未声明的编号作为孤立顶点 */
+        public GraphBuilder getBuilder() { return builder; }
+
+        /** 顶点记录的条数 */
+        public int vertexRecords() { return vertexCount; }
+
+        public int vertexId(int i) { return ids[i]; }
+
+        public double x(int i) { return xs[i]; }
+
+        public double y(int i) { return ys[i]; }
+    }
+
+    private GraphTextLoader() {
+    }
+
+    /** 读取整个文件，边放进建图器，之后可调用 buildAdjList/buildCsr 一次性生成图；有向图文件须按有向加载 */
+    public static Result load(Path file, boolean directed) throws IOException {
+        GraphBuilder builder = new GraphBuilder(0, directed);
+        Result result = new Result(builder);
+        parse(file, new RecordHandler() {
+            @Override
+            public void vertex(int id, double x, double y) {
+                if (id < 0) {
+                    throw new IllegalArgumentException("顶点编号不能为负: " + id);
+                }
+                builder.ensureVertices(id + 1);
+                result.addVertex(id, x, y);
+            }
+
+            @Override
+            public void edge(int from, int to, int weight) {
+                builder.addEdge(from, to, weight);
+            }
+
+            @Override
+            public void directed() {
+                if (!directed) {
+                    throw new IllegalArgumentException("文件是有向图，不能按无向图加载");
+                }
+            }
+        });
+        return result;
+    }
+
+    /** 流式解析文件，每条记录回调一次，格式错误时抛出带行号的 IOException */
+    public static void parse(Path file, RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Parser parser = new Parser(handler);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (true) {
+                boolean eof = channel.read(buffer) < 0;
+                buffer.flip();
+                parser.consume(buffer, eof);
+                if (eof) return;
+                if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                    // 一行比缓冲区还长，换一个两倍大小的缓冲区
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    larger.put(buffer);
+                    buffer = larger;
+                } else {
+                    buffer.compact(); // 把不完整的最后一行移到开头，接着读
+                }
+            }
+        }
+    }
+
+    /** 直接在缓冲区的底层数组上按字节解析，pos 指向当前读到的位置 */
+    private static final class Parser {
+        private final RecordHandler handler;
+        private byte[] buf;
+        private int pos;
+        private int end; // 当前行末尾（不含换行符）
+        private long line;
+
+        Parser(RecordHandler handler) {
+            this.handler = handler;
+        }
+
+        /** 解析缓冲区中所有完整的行，position 停在剩余的不完整行开头；eof 时剩余部分也作为一行 */
+        void consume(ByteBuffer buffer, boolean eof) throws IOException {
+            buf = buffer.array();
+            int start = buffer.position();
+            int limit = buffer.limit();
+            for (int i = start; i < limit; i++) {
+                if (buf[i] == '\n') {
+                    parseLine(start, i);
+                    start = i + 1;
+                }
+            }
+            if (eof && start < limit) {
+                parseLine(start, limit);
+                start = limit;
+            }
+            buffer.position(start);
+        }
+
+        private void parseLine(int from, int to) throws IOException {
+            line++;
+            pos = from;
+            end = to;
+            if (end > pos && buf[end - 1] == '\r') end--;
+            skipBlanks();
+            if (pos == end) return; // 空行
+            if (isDirectedMarker()) {
+                handler.directed();
+                return;
+            }
+            byte type = buf[pos++];
+            skipBlanks();
+            if (pos == end || buf[pos] != ',') return; // 不是 V/E 记录
+            pos++;
+            if (type == 'V') {
+                int id = readInt();
+                double x = readDouble();
+                double y = readDouble();
+                handler.vertex(id, x, y);
+            } else if (type == 'E') {
+                int from1 = readInt();
+                int to1 = readInt();
+                int weight = readInt();
+                handler.edge(from1, to1, weight);
+            }
+        }
+
+        /** 当前行去掉首尾空白后是否为 "directed"（不区分大小写） */
+        private boolean isDirectedMarker() {
+            int last = end;
+            while (last > pos && (buf[last - 1] == ' ' || buf[last - 1] == '\t')) last--;
+            if (last - pos != DIRECTED.length) return false;
+            for (int i = 0; i < DIRECTED.length; i++) {
+                if ((buf[pos + i] | 0x20) != DIRECTED[i]) return false;
+            }
+            return true;
+        }
+
+        private void skipBlanks() {
+            while (pos < end && (buf[pos] == ' ' || buf[pos] == '\t')) pos++;
+        }
+
+        /** 字段结束：跳过空白，遇到逗号则跳过，后面多余的字段忽略 */
+        private void finishField() throws IOException {
+            skipBlanks();
+            if (pos < end) {
+                if (buf[pos] != ',') throw error("字段中有非法字符");
+                pos++;
+            }
+        }
+
+        private int readInt() throws IOException {
+            skipBlanks();
+            boolean negative = false;
+            if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+                negative = buf[pos++] == '-';
+            }
+            int digitsStart = pos;
+            long value = 0;
+            while (pos < end) {
+                int d = buf[pos] - '0';
+                if (d < 0 || d > 9) break;
+                value = value * 10 + d;
+                if (value > 1L + Integer.MAX_VALUE) throw error("整数超出范围");
+                pos++;
+            }
+            if (pos == digitsStart) throw error("缺少整数");
+            if (negative) value = -value;
+            if (value > Integer.MAX_VALUE) throw error("整数超出范围");
+            finishField();
+            return (int) value;
+        }
+
+        /**
+         * 解析十进制小数。有效数字不超过 2^53 且十的幂不超过 22 时一次乘除即得到正确舍入的结果，
+         * 坐标这类数据都走这条路径；其余情况（位数很多或指数很大）退回 Double.parseDouble。
+         */
+        private double readDouble() throws IOException {
+            skipBlanks();
+            int start = pos;
+            boolean negative = false;
+            if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+                negative = buf[pos++] == '-';
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean exact = true;
+            boolean any = false;
+            boolean fraction = false;
+            while (pos < end) {
+                byte b = buf[pos];
+                if (b == '.' && !fraction) {
+                    fraction = true;
+                } else if (b >= '0' && b <= '9') {
+                    any = true;
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        if (mantissa != 0) digits++;
+                        if (fraction) scale--;
+                    } else {
+                        exact = false;
+                    }
+                } else {
+                    break;
+                }
+                pos++;
+            }
+            if (!any) throw error("缺少数值");
+            if (pos < end && (buf[pos] == 'e' || buf[pos] == 'E')) {
+                pos++;
+                boolean negExp = false;
+                if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+                    negExp = buf[pos++] == '-';
+                }
+                int expStart = pos;
+                int exp = 0;
+                while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+                    exp = Math.min(exp * 10 + (buf[pos] - '0'), 100000);
+                    pos++;
+                }
+                if (pos == expStart) throw error("指数格式错误");
+                scale += negExp ? -exp : exp;
+            }
+            double value;
+            if (exact && mantissa < (1L << 53) && scale >= -22 && scale <= 22) {
+                value = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+                if (negative) value = -value;
+            } else {
+                byte[] text = new byte[pos - start];
+                for (int i = 0; i < text.length; i++) text[i] = buf[start + i];
+                value = Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+            }
+            finishField();
+            return value;
+        }
+
+        private IOException error(String message) {
+            return new IOException("第 " + line + " 行格式错误: " + message);
+        }
+    }
+
+    /** 10^0 到 10^22，都能用 double 精确表示 */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+}
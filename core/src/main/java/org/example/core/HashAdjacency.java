@@ -0,0 +1,215 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * 高度数顶点的邻接表：开放寻址（线性探测）的 int -> int 哈希表。
+ * isEdge、取权重和删除均为 O(1)；删除采用后移法，不留墓碑。
+ * 按升序下标访问时懒构建一份有序视图，修改邻居集合后失效。
+ */
+class HashAdjacency extends Adjacency {
+    private static final int FREE = -1; // 顶点编号非负，-1 表示空槽
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int maxFill;
+    private SortedView sorted;
+
+    /** 有序视图，字段均为 final，保证并发读者看到完整内容 */
+    private static final class SortedView {
+        final int[] targets;
+        final int[] weights;
+
+        SortedView(int[] targets, int[] weights) {
+            this.targets = targets;
+            this.weights = weights;
+        }
+    }
+
+    HashAdjacency(Adjacency source) {
+        this(source.size());
+        source.forEach(this::put);
+    }
+
+    private HashAdjacency(int expected) {
+        allocate(tableSizeFor(expected));
+    }
+
+    private static int tableSizeFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L / 4 <= expected) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+        maxFill = capacity * 3 / 4;
+    }
+
+    private int slotOf(int to) {
+        int h = to * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /** 返回 to 所在的槽位，不存在时返回 -1 */
+    private int find(int to) {
+        for (int i = slotOf(to); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == to) return i;
+            if (k == FREE) return -1;
+        }
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    int target(int i) {
+        return sortedView().targets[i];
+    }
+
+    @Override
+    int weight(int i) {
+        return sortedView().weights[i];
+    }
+
+    @Override
+    int upperBound(int to) {
+        int[] targets = sortedView().targets;
+        int i = Arrays.binarySearch(targets, to);
+        return i >= 0 ? i + 1 : -(i + 1);
+    }
+
+    @Override
+    boolean contains(int to) {
+        return find(to) >= 0;
+    }
+
+    @Override
+    int weightOf(int to) {
+        int slot = find(to);
+        return slot >= 0 ? values[slot] : 0;
+    }
+
+    @Override
+    boolean put(int to, int weight) {
+        int i = slotOf(to);
+        while (keys[i] != FREE) {
+            if (keys[i] == to) {
+                values[i] = weight;
+                SortedView view = sorted;
+                if (view != null) {
+                    view.weights[Arrays.binarySearch(view.targets, to)] = weight;
+                }
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = to;
+        values[i] = weight;
+        sorted = null;
+        if (++size > maxFill) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    @Override
+    boolean remove(int to) {
+        int slot = find(to);
+        if (slot < 0) return false;
+        // 后移删除：把探测链上后续可以前移的元素补到空位上
+        int hole = slot;
+        for (int i = (hole + 1) & mask; keys[i] != FREE; i = (i + 1) & mask) {
+            int home = slotOf(keys[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = FREE;
+        size--;
+        sorted = null;
+        return true;
+    }
+
+    @Override
+    void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+        sorted = null;
+    }
+
+    @Override
+    void forEach(NeighborConsumer action) {
+        int[] k = keys;
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] != FREE) {
+                action.accept(k[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    void copyTo(int[] targetsOut, int[] weightsOut, int pos) {
+        SortedView view = sortedView();
+        System.arraycopy(view.targets, 0, targetsOut, pos, size);
+        System.arraycopy(view.weights, 0, weightsOut, pos, size);
+    }
+
+    @Override
+    Adjacency copy() {
+        return new HashAdjacency(this);
+    }
+
+    @Override
+    Adjacency relabel(int[] oldToNew) {
+        HashAdjacency result = new HashAdjacency(size);
+        forEach((to, weight) -> result.put(oldToNew[to], weight));
+        return result;
+    }
+
+    private SortedView sortedView() {
+        SortedView view = sorted;
+        if (view == null) {
+            int[] targets = new int[size];
+            int n = 0;
+            for (int k : keys) {
+                if (k != FREE) targets[n++] = k;
+            }
+            Arrays.sort(targets);
+            int[] weights = new int[size];
+            for (int i = 0; i < size; i++) {
+                weights[i] = values[find(targets[i])];
+            }
+            view = new SortedView(targets, weights);
+            sorted = view;
+        }
+        return view;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int j = slotOf(oldKeys[i]);
+                while (keys[j] != FREE) j = (j + 1) & mask;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
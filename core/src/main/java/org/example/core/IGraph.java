@@ -5,6 +5,7 @@ interface IGraph{
     int edgesNumber();
     Edge firstEdge(int onevertex);
     Edge nextEdge(Edge pre);
+    void forEachNeighbor(int onevertex, NeighborConsumer action);  // 遍历邻居，O(度数)且不分配对象；顺序由实现决定
     void setEdge(int from,int to,int weight);
     void delEdge(int from,int to);
     boolean isEdge(Edge edge);
@@ -12,6 +13,9 @@ interface IGraph{
     int toVertex(Edge edge);
     int weight(Edge edge);
     void addVertex();  // 添加动态添加顶点的方法
+    void removeVertex(int vertex);  // 删除顶点及其关联边，编号留作墓碑
+    boolean isVertexRemoved(int vertex);
+    int[] compact();  // 去掉墓碑并重新连续编号，返回旧编号到新编号的映射
     void clearAllEdges();  // 清空所有边
     void generateRandomGraph();  // 随机生成图
 }
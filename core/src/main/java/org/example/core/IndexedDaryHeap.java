@@ -0,0 +1,156 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * 带索引的 d 叉最小堆，元素为 [0, capacity) 内的整数（通常是顶点编号），优先级为 long。
+ * pos 数组记录每个元素在堆中的下标，因此可以 O(log_d n) 降低已在堆中的元素的优先级，
+ * 同一元素在堆中只出现一次，不会像 PriorityQueue 那样堆积过期条目；全部操作不分配对象。
+ * 堆中按槽位并排存放元素和优先级，比较时不需要再按元素查一次优先级。
+ */
+public class IndexedDaryHeap {
+    /** Dijkstra 场景下 4 叉堆的层数和缓存表现比二叉堆好 */
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private final int[] items; // 堆中第 i 个槽位的元素；每个元素至多出现一次，容量即元素个数
+    private final long[] keys; // 堆中第 i 个槽位的优先级
+    private final int[] pos;   // 元素所在的槽位，不在堆中为 -1
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("堆的叉数至少为 2: " + arity);
+        }
+        this.arity = arity;
+        items = new int[capacity];
+        keys = new long[capacity];
+        pos = new int[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int item) {
+        return pos[item] >= 0;
+    }
+
+    /** 元素当前的优先级，元素须在堆中 */
+    public long key(int item) {
+        return keys[pos[item]];
+    }
+
+    /** 插入不在堆中的元素 */
+    public void insert(int item, long key) {
+        if (pos[item] >= 0) {
+            throw new IllegalStateException("元素已在堆中: " + item);
+        }
+        siftUp(size++, item, key);
+    }
+
+    /** 降低已在堆中的元素的优先级，新优先级不小于当前值时不做任何事 */
+    public void decreaseKey(int item, long key) {
+        int i = pos[item];
+        if (i < 0) {
+            throw new IllegalStateException("元素不在堆中: " + item);
+        }
+        if (key < keys[i]) siftUp(i, item, key);
+    }
+
+    /** 不在堆中则插入，在堆中则尝试降低优先级；优先级确实变小（或新插入）时返回 true */
+    public boolean insertOrDecrease(int item, long key) {
+        int i = pos[item];
+        if (i < 0) {
+            insert(item, key);
+            return true;
+        }
+        if (key < keys[i]) {
+            siftUp(i, item, key);
+            return true;
+        }
+        return false;
+    }
+
+    /** 堆顶元素，堆须非空 */
+    public int peek() {
+        return items[0];
+    }
+
+    /** 堆顶元素的优先级，堆须非空 */
+    public long peekKey() {
+        return keys[0];
+    }
+
+    /** 弹出优先级最小的元素 */
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("堆为空");
+        }
+        int top = items[0];
+        pos[top] = -1;
+        size--;
+        if (size > 0) {
+            siftDown(0, items[size], keys[size]);
+        }
+        return top;
+    }
+
+    /** 清空堆，只重置堆中剩余元素的位置，O(size) */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[items[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /** 把 (item, key) 从槽位 i 向上移动到合适位置 */
+    private void siftUp(int i, int item, long key) {
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            long parentKey = keys[parent];
+            if (parentKey <= key) break;
+            items[i] = items[parent];
+            keys[i] = parentKey;
+            pos[items[i]] = i;
+            i = parent;
+        }
+        items[i] = item;
+        keys[i] = key;
+        pos[item] = i;
+    }
+
+    /** 把 (item, key) 从槽位 i 向下移动，每层在至多 arity 个孩子中找最小的 */
+    private void siftDown(int i, int item, long key) {
+        while (true) {
+            int first = i * arity + 1;
+            if (first >= size) break;
+            int last = Math.min(first + arity, size);
+            int best = first;
+            long bestKey = keys[first];
+            for (int c = first + 1; c < last; c++) {
+                if (keys[c] < bestKey) {
+                    best = c;
+                    bestKey = keys[c];
+                }
+            }
+            if (bestKey >= key) break;
+            items[i] = items[best];
+            keys[i] = bestKey;
+            pos[items[i]] = i;
+            i = best;
+        }
+        items[i] = item;
+        keys[i] = key;
+        pos[item] = i;
+    }
+}
@@ -0,0 +1,316 @@
+package org.example.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * ALT 算法的路标表：选出 k 个路标顶点，预先算好各路标到每个顶点、每个顶点到各路标的最短距离。
+ * 由三角不等式 d(v,t) ≥ d(L,t) − d(L,v) 和 d(v,t) ≥ d(v,L) − d(t,L)，AltSearch 查询时用它作为 A* 的下界。
+ * 距离按顶点存放（第 v 行是 v 与 k 个路标之间的距离），取一个顶点的全部下界只读一段连续内存；
+ * 占用 O(kV) 个 int，远小于全源最短路径。无向图两个方向的距离相同，只存一份。
+ * 表可以写入文件，下次直接读回，不必重新预处理。
+ */
+public final class LandmarkTable {
+    static final int MAGIC = 0x4D4C4B48; // "HKLM"
+    static final int VERSION = 1;
+    /** 不可达的距离 */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int LANDMARKS_POSITION = 28;
+
+    private final boolean directed;
+    private final int vertices;
+    private final int arcs;
+    private final long graphVersion; // 预处理时图的版本号，从文件读入的表为 -1
+    private final int[] landmarks;
+    private final int[] from; // from[v*k+i] = d(landmarks[i], v)
+    private final int[] to;   // to[v*k+i] = d(v, landmarks[i])，无向图与 from 为同一数组
+    private final int[] allLandmarks; // 0..k-1，lowerBound 使用全部路标时的下标
+
+    private LandmarkTable(boolean directed, int vertices, int arcs, long graphVersion,
+                          int[] landmarks, int[] from, int[] to) {
+        this.directed = directed;
+        this.vertices = vertices;
+        this.arcs = arcs;
+        this.graphVersion = graphVersion;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+        allLandmarks = IntStream.range(0, landmarks.length).toArray();
+    }
+
+    /**
+     * 按最远点策略选取 k 个路标并建表：第一个路标是离任一顶点最远的顶点，
+     * 之后每次取到已选路标的最近距离最大的顶点，不可达的顶点视为无穷远，因此每个连通分量都会分到路标。
+     * 选取依赖上一个路标的结果只能逐个进行，选取时算出的距离直接作为表的一部分；有向图的反向距离之后并行计算。
+     */
+    public static LandmarkTable farthest(Graph graph, int k) {
+        checkCount(graph, k);
+        int n = graph.verticesNumber();
+        long version = graph.version();
+        int[] chosen = new int[k];
+        boolean[] isChosen = new boolean[n];
+        int[][] forward = new int[k][];
+        int seed = 0;
+        while (graph.isVertexRemoved(seed)) seed++;
+        int[] nearest = distances(graph, seed);
+        for (int i = 0; i < k; i++) {
+            int best = -1;
+            for (int v = 0; v < n; v++) {
+                if (graph.isVertexRemoved(v) || isChosen[v]) continue;
+                if (best < 0 || nearest[v] > nearest[best]) best = v;
+            }
+            chosen[i] = best;
+            isChosen[best] = true;
+            forward[i] = distances(graph, best);
+            if (i == 0) {
+                nearest = forward[0].clone(); // 起点只用来找第一个路标，不算作路标
+            } else {
+                int[] d = forward[i];
+                for (int v = 0; v < n; v++) {
+                    if (d[v] < nearest[v]) nearest[v] = d[v];
+                }
+            }
+        }
+        return build(graph, version, chosen, forward);
+    }
+
+    /** 用给定的路标顶点建表，各路标的最短路径并行计算 */
+    public static LandmarkTable of(Graph graph, int[] landmarks) {
+        checkCount(graph, landmarks.length);
+        for (int l : landmarks) {
+            if (l < 0 || l >= graph.verticesNumber() || graph.isVertexRemoved(l)) {
+                throw new IllegalArgumentException("顶点不存在: " + l);
+            }
+        }
+        long version = graph.version();
+        int[][] forward = IntStream.range(0, landmarks.length).parallel()
+                .mapToObj(i -> distances(graph, landmarks[i]))
+                .toArray(int[][]::new);
+        return build(graph, version, landmarks.clone(), forward);
+    }
+
+    private static void checkCount(Graph graph, int k) {
+        if (k <= 0 || k > graph.liveVerticesNumber()) {
+            throw new IllegalArgumentException("路标个数必须在 1 到顶点数之间: " + k);
+        }
+        if ((long) graph.verticesNumber() * k > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("路标过多，距离表超出数组长度上限: " + k);
+        }
+    }
+
+    /** 有向图再沿反向图算出各顶点到路标的距离，然后按顶点重排成行 */
+    private static LandmarkTable build(Graph graph, long version, int[] landmarks, int[][] forward) {
+        int n = graph.verticesNumber();
+        int k = landmarks.length;
+        int[] from = interleave(forward, n);
+        int[] to = from;
+        if (graph.isDirected()) {
+            CsrGraph reverse = CsrGraph.reverseOf(graph);
+            int[][] backward = IntStream.range(0, k).parallel()
+                    .mapToObj(i -> distances(reverse, landmarks[i]))
+                    .toArray(int[][]::new);
+            to = interleave(backward, n);
+        }
+        return new LandmarkTable(graph.isDirected(), n, graph.edgesNumber(), version, landmarks, from, to);
+    }
+
+    /** 把每个路标一列的距离转成每个顶点一行 */
+    private static int[] interleave(int[][] columns, int n) {
+        int k = columns.length;
+        int[] rows = new int[n * k];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            for (int i = 0; i < k; i++) rows[v * k + i] = columns[i][v];
+        });
+        return rows;
+    }
+
+    /** 从 source 出发的单源最短距离，只保留距离，每个线程各自调用 */
+    private static int[] distances(Graph graph, int source) {
+        int n = graph.verticesNumber();
+        int[] dist = new int[n];
+        Arrays.fill(dist, UNREACHABLE);
+        IndexedDaryHeap heap = new IndexedDaryHeap(n);
+        dist[source] = 0;
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            int du = dist[u];
+            graph.forEachNeighbor(u, (v, w) -> {
+                long d = (long) du + w;
+                if (d < dist[v]) {
+                    dist[v] = (int) d;
+                    heap.insertOrDecrease(v, d);
+                }
+            });
+        }
+        return dist;
+    }
+
+    /**
+     * v 到 t 的最短距离下界，取所有路标两个方向三角不等式的最大值。
+     * 路标能到 v 却到不了 t，或者 t 能到路标而 v 不能，说明 v 到不了 t，返回 UNREACHABLE。
+     * 这个下界满足一致性（沿任一条边 u -> v 下降不超过边权），A* 中每个顶点只需出堆一次。
+     */
+    public int lowerBound(int v, int t) {
+        return lowerBound(v, t, allLandmarks, allLandmarks.length);
+    }
+
+    /** 只用 active 中前 count 个路标的下界，仍满足一致性 */
+    int lowerBound(int v, int t, int[] active, int count) {
+        int k = landmarks.length;
+        int rv = v * k;
+        int rt = t * k;
+        int bound = 0;
+        for (int j = 0; j < count; j++) {
+            int i = active[j];
+            int lv = from[rv + i];
+            int lt = from[rt + i];
+            if (!directed) {
+                // 无向图两个方向的不等式合起来就是 |d(L,t) − d(L,v)|，一方不可达说明不在同一连通分量
+                if (lv == UNREACHABLE || lt == UNREACHABLE) {
+                    if (lv != lt) return UNREACHABLE;
+                    continue;
+                }
+                int diff = Math.abs(lt - lv);
+                if (diff > bound) bound = diff;
+                continue;
+            }
+            if (lv != UNREACHABLE) {
+                if (lt == UNREACHABLE) return UNREACHABLE;
+                if (lt - lv > bound) bound = lt - lv;
+            }
+            int vl = to[rv + i];
+            int tl = to[rt + i];
+            if (tl != UNREACHABLE) {
+                if (vl == UNREACHABLE) return UNREACHABLE;
+                if (vl - tl > bound) bound = vl - tl;
+            }
+        }
+        return bound;
+    }
+
+    /** 第 i 个路标到 v 的最短距离 */
+    public int distanceFrom(int i, int v) {
+        return from[v * landmarks.length + i];
+    }
+
+    /** v 到第 i 个路标的最短距离 */
+    public int distanceTo(int v, int i) {
+        return to[v * landmarks.length + i];
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    public int size() {
+        return landmarks.length;
+    }
+
+    public int verticesNumber() {
+        return vertices;
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * 表是否仍适用于 graph：顶点数、方向和边数一致，且预处理后图没有再被修改。
+     * 从文件读入的表不知道图的版本号，只能检查前三项。
+     */
+    public boolean isValidFor(Graph graph) {
+        return graph.verticesNumber() == vertices && graph.isDirected() == directed
+                && graph.edgesNumber() == arcs && (graphVersion < 0 || graphVersion == graph.version());
+    }
+
+    /**
+     * 写入文件。布局与 GraphFile 相同：64 字节文件头（magic、version、flags、n、边数、CRC32、文件头长度、k），
+     * 随后是 landmarks[k]、from[n*k]，有向图再接 to[n*k]，全部为小端 int。
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(GraphFile.HEADER_BYTES); // 文件头在最后写入
+            GraphFile.Writer writer = new GraphFile.Writer(channel);
+            writer.ints(landmarks, landmarks.length);
+            writer.ints(from, from.length);
+            if (directed) writer.ints(to, to.length);
+            ByteBuffer head = ByteBuffer.allocate(GraphFile.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            head.putInt(MAGIC).putInt(VERSION).putInt(directed ? GraphFile.FLAG_DIRECTED : 0)
+                    .putInt(vertices).putInt(arcs).putInt(0).putInt(GraphFile.HEADER_BYTES).putInt(landmarks.length);
+            writer.finish(head);
+        }
+    }
+
+    /** 读回 write 写出的表，校验 CRC32 */
+    public static LandmarkTable read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(GraphFile.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (head.hasRemaining() && channel.read(head, head.position()) >= 0) {
+                // 读满文件头（文件可能比 64 字节短）
+            }
+            if (head.position() < GraphFile.HEADER_BYTES || head.getInt(0) != MAGIC) {
+                throw new IOException("不是有效的路标表文件: " + file);
+            }
+            if (head.getInt(4) != VERSION) {
+                throw new IOException("不支持的路标表文件版本: " + head.getInt(4));
+            }
+            boolean directed = (head.getInt(8) & GraphFile.FLAG_DIRECTED) != 0;
+            int n = head.getInt(12);
+            int arcs = head.getInt(16);
+            int checksum = head.getInt(GraphFile.CHECKSUM_POSITION);
+            int k = head.getInt(LANDMARKS_POSITION);
+            long cells = (long) n * k;
+            long end = GraphFile.HEADER_BYTES + (k + cells * (directed ? 2 : 1)) * Integer.BYTES;
+            if (n < 0 || arcs < 0 || k <= 0 || head.getInt(24) != GraphFile.HEADER_BYTES
+                    || cells > Integer.MAX_VALUE - 8 || channel.size() != end) {
+                throw new IOException("路标表文件已损坏: " + file);
+            }
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = GraphFile.ioBuffer();
+            long pos = GraphFile.HEADER_BYTES;
+            int[] landmarks = new int[k];
+            pos = readInts(channel, buffer, pos, landmarks, crc);
+            int[] from = new int[(int) cells];
+            pos = readInts(channel, buffer, pos, from, crc);
+            int[] to = from;
+            if (directed) {
+                to = new int[(int) cells];
+                readInts(channel, buffer, pos, to, crc);
+            }
+            head.putInt(GraphFile.CHECKSUM_POSITION, 0);
+            head.flip();
+            crc.update(head);
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("路标表文件校验失败: " + file);
+            }
+            for (int l : landmarks) {
+                if (l < 0 || l >= n) throw new IOException("路标表文件已损坏: " + file);
+            }
+            return new LandmarkTable(directed, n, arcs, -1, landmarks, from, to);
+        }
+    }
+
+    /** 从 pos 开始读满 out，同时累计 CRC32，返回读完后的位置 */
+    private static long readInts(FileChannel channel, ByteBuffer buffer, long pos, int[] out, CRC32 crc)
+            throws IOException {
+        for (int i = 0; i < out.length; ) {
+            int len = Math.min(out.length - i, buffer.capacity() / Integer.BYTES);
+            GraphFile.fill(channel, buffer, pos, len * Integer.BYTES);
+            crc.update(buffer.duplicate());
+            buffer.asIntBuffer().get(out, i, len);
+            pos += (long) len * Integer.BYTES;
+            i += len;
+        }
+        return pos;
+    }
+}
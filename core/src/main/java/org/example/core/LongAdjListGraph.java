@@ -0,0 +1,59 @@
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * long 权重的邻接表图，适合累计代价超出 int 范围的路网等场景。
+ * 权重以 long 原始类型存储；继承的 int 接口（forEachNeighbor、firstEdge 等）看到的是饱和到 int 范围的值。
+ */
+public class LongAdjListGraph extends WideAdjListGraph {
+
+    public LongAdjListGraph(int numvertex) {
+        this(numvertex, false);
+    }
+
+    /** directed 为 true 时 setEdge/delEdge 只作用于 from -> to 一个方向 */
+    public LongAdjListGraph(int numvertex, boolean directed) {
+        super(numvertex, directed);
+    }
+
+    @Override
+    int narrow(long bits) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, bits));
+    }
+
+    @Override
+    long widen(int weight) {
+        return weight;
+    }
+
+    public void setEdge(int from, int to, long weight) {
+        setEdgeBits(from, to, weight);
+    }
+
+    /** 获取边的权重，边不存在时返回 0 */
+    public long getEdge(int from, int to) {
+        return edgeBits(from, to, 0L);
+    }
+
+    /** 按目标升序遍历邻居，回调接收完整的 long 权重 */
+    public void forEachLongNeighbor(int onevertex, LongNeighborConsumer action) {
+        forEachArc(onevertex, action);
+    }
+
+    /** 获取所有边：无向图每条边只返回 from < to 的一个方向，有向图返回全部有向边 */
+    public LongEdge[] getAllLongEdges() {
+        int n = verticesNumber();
+        List<LongEdge> allEdges = new ArrayList<>(edgesNumber());
+        for (int i = 0; i < n; i++) {
+            final int from = i;
+            forEachArc(i, (to, weight) -> {
+                if (isDirected() || from < to) {
+                    allEdges.add(new LongEdge(from, to, weight));
+                }
+            });
+        }
+        return allEdges.toArray(new LongEdge[0]);
+    }
+}
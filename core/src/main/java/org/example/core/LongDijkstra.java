@@ -0,0 +1,39 @@
+package org.example.core;
+
+/**
+ * long 权重图上的 Dijkstra，距离用 long 保存，不会像 int 版本那样在长路径上溢出；搜索过程见 WideDijkstra。
+ * 与 DoubleDijkstra 一致，遇到负权重时抛出 IllegalArgumentException。
+ */
+public class LongDijkstra extends WideDijkstra {
+
+    public LongDijkstra(LongAdjListGraph graph) {
+        this(graph, true);
+    }
+
+    /** logging 为 false 时不记录计算过程，getProcessLog 只有标题 */
+    public LongDijkstra(LongAdjListGraph graph, boolean logging) {
+        super(graph, logging);
+    }
+
+    @Override
+    long unreachable() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    long extend(int from, int to, long distance, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("边权不能为负: " + from + "-" + to + " (" + weight + ")");
+        }
+        return weight > Long.MAX_VALUE - distance ? Long.MAX_VALUE : distance + weight; // 正向溢出时按不可达处理
+    }
+
+    @Override
+    String format(long distance) {
+        return String.valueOf(distance);
+    }
+
+    public long getShortestDistance(int end) {
+        return hasDistance(end) ? dist[end] : -1;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.core;
+
+/** long 权重的边 */
+public class LongEdge {
+    private final int mfrom;
+    private final int mto;
+    private final long mweight;
+
+    public LongEdge(int from, int to, long weight) {
+        this.mfrom = from;
+        this.mto = to;
+        this.mweight = weight;
+    }
+    public int getMfrom(){return mfrom;}
+    public int getMto(){return mto;}
+    public long getMweight(){return mweight;}
+}
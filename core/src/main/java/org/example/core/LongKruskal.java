@@ -0,0 +1,29 @@
+package org.example.core;
+
+import java.util.Comparator;
+
+/** long 权重图上的 Kruskal 最小生成树 */
+public class LongKruskal {
+
+    private LongAdjListGraph graph;
+
+    public LongKruskal(LongAdjListGraph graph) {
+        this.graph = graph;
+    }
+
+    /** @return 最小生成树的边，图不连通时返回 null；主循环见 MinimumSpanningTree */
+    public LongEdge[] generateMST() {
+        return MinimumSpanningTree.kruskal(graph.getAllLongEdges(), Comparator.comparingLong(LongEdge::getMweight),
+                LongEdge::getMfrom, LongEdge::getMto, graph.verticesNumber(), graph.liveVerticesNumber());
+    }
+
+    /** 生成树的总权重，图不连通时返回 -1 */
+    public long totalWeight(LongEdge[] mst) {
+        if (mst == null) return -1;
+        long total = 0;
+        for (LongEdge e : mst) {
+            total += e.getMweight();
+        }
+        return total;
+    }
+}
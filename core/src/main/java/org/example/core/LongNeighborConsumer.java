@@ -0,0 +1,7 @@
+package org.example.core;
+
+/** long 权重的邻居回调，权重以原始类型传递，不装箱 */
+@FunctionalInterface
+public interface LongNeighborConsumer {
+    void accept(int to, long weight);
+}
@@ -0,0 +1,159 @@
+package org.example.core;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 邻接数据保存在内存映射文件中的只读图。
+ * 打开时只做映射，不把边读入 Java 对象，适合比堆还大的图；页面由操作系统按需加载。
+ * 文件布局见 GraphFile。
+ */
+public class MappedGraph extends ReadOnlyGraph {
+    private final MappedIntArray offsets;
+    private final MappedIntArray targets;
+    private final MappedIntArray weights;
+    private volatile boolean statisticsReady;
+
+    private MappedGraph(int numvertex, boolean directed,
+                        MappedIntArray offsets, MappedIntArray targets, MappedIntArray weights) {
+        super(numvertex, directed);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /** 映射一个由 write 生成的图文件，只读取文件头和墓碑位图，不做 CRC 校验（见 GraphFile.verify） */
+    public static MappedGraph open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            GraphFile.Header header = GraphFile.readHeader(channel, file);
+            int n = header.vertices;
+            int m = header.arcs;
+
+            // 映射在通道关闭后依然有效
+            MappedIntArray offsets = new MappedIntArray(channel, header.offsetsPos, n + 1);
+            MappedIntArray targets = new MappedIntArray(channel, header.targetsPos, m);
+            MappedIntArray weights = new MappedIntArray(channel, header.weightsPos, m);
+            MappedGraph graph = new MappedGraph(n, header.isDirected(), offsets, targets, weights);
+            GraphFile.applyTombstones(channel, header, graph);
+            return graph;
+        }
+    }
+
+    /** 把 CSR 图写成可映射的文件，格式见 GraphFile */
+    public static void write(CsrGraph graph, Path file) throws IOException {
+        GraphFile.write(graph, file);
+    }
+
+    /** 在顶点 v 的邻接区间中查找第一个编号大于 to 的位置 */
+    private int upperBound(int v, int to) {
+        int lo = offsets.get(v);
+        int hi = offsets.get(v + 1);
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (targets.get(mid) <= to) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public Edge firstEdge(int onevertex) {
+        int i = offsets.get(onevertex);
+        if (i < offsets.get(onevertex + 1)) {
+            return new Edge(onevertex, targets.get(i), weights.get(i));
+        }
+        return null; // 没有边
+    }
+
+    @Override
+    public Edge nextEdge(Edge pre) {
+        if (pre == null) return null;
+        int from = pre.getMfrom();
+        int i = upperBound(from, pre.getMto());
+        if (i < offsets.get(from + 1)) {
+            return new Edge(from, targets.get(i), weights.get(i));
+        }
+        return null;
+    }
+
+    @Override
+    public void forEachNeighbor(int onevertex, NeighborConsumer action) {
+        int end = offsets.get(onevertex + 1);
+        for (int i = offsets.get(onevertex); i < end; i++) {
+            action.accept(targets.get(i), weights.get(i));
+        }
+    }
+
+    @Override
+    public boolean isEdge(Edge edge) {
+        if (edge == null) return false;
+        int from = edge.getMfrom();
+        int i = upperBound(from, edge.getMto()) - 1;
+        return i >= offsets.get(from) && targets.get(i) == edge.getMto();
+    }
+
+    /** 与 CsrGraph 一致，按存储的邻接项计数 */
+    @Override
+    protected int arcsNumber() {
+        return targets.length();
+    }
+
+    /** 入度统计需要扫描全部 targets，推迟到第一次查询度数信息时再做，打开文件仍然只做映射 */
+    private void ensureStatistics() {
+        if (statisticsReady) return;
+        synchronized (this) {
+            if (statisticsReady) return;
+            int n = verticesNumber();
+            int[] outDegree = new int[n];
+            int[] inDegree = new int[n];
+            for (int v = 0; v < n; v++) {
+                outDegree[v] = offsets.get(v + 1) - offsets.get(v);
+            }
+            for (int i = 0; i < targets.length(); i++) {
+                inDegree[targets.get(i)]++;
+            }
+            rebuildStatistics(outDegree, inDegree, arcsNumber());
+            statisticsReady = true;
+        }
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return offsets.get(v + 1) - offsets.get(v);
+    }
+
+    @Override
+    public int inDegree(int v) {
+        ensureStatistics();
+        return super.inDegree(v);
+    }
+
+    @Override
+    public int maxDegree() {
+        ensureStatistics();
+        return super.maxDegree();
+    }
+
+    @Override
+    public int[] degreeHistogram() {
+        ensureStatistics();
+        return super.degreeHistogram();
+    }
+
+    @Override
+    public int fromVertex(Edge edge) {
+        return edge.getMfrom();
+    }
+
+    @Override
+    public int toVertex(Edge edge) {
+        return edge.getMto();
+    }
+
+    @Override
+    public int weight(Edge edge) {
+        return edge.getMweight();
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.core;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 文件中一段小端 int 数组的只读内存映射视图。
+ * 单个 MappedByteBuffer 最大 2GB，因此按每块 2^28 个 int 分块映射。
+ */
+class MappedIntArray {
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private final IntBuffer[] chunks;
+    private final int length;
+
+    MappedIntArray(FileChannel channel, long position, int length) throws IOException {
+        this.length = length;
+        int chunkCount = (int) (((long) length + CHUNK_MASK) >>> CHUNK_SHIFT);
+        chunks = new IntBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            long start = (long) c << CHUNK_SHIFT;
+            long count = Math.min(length - start, 1L << CHUNK_SHIFT);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position + start * Integer.BYTES, count * Integer.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+        }
+    }
+
+    int get(int index) {
+        return chunks[index >>> CHUNK_SHIFT].get(index & CHUNK_MASK);
+    }
+
+    int length() {
+        return length;
+    }
+}
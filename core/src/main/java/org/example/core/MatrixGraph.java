@@ -1,77 +1,199 @@
 package org.example.core;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class MatrixGraph extends Graph{
-    private int[][] mMatrix;
+    /** 扁平存储时顶点容量的上限，保证 maxVertices * maxVertices 不超过数组长度限制 */
+    public static final int MAX_CAPACITY = 46340;
+
+    private int[] mMatrix;     // 行主序扁平存储，(i, j) 位于 i * maxVertices + j
+    private long[] mRowBits;   // 每行 wordsFor(maxVertices) 个 long 的占用位图，第 j 位为 1 表示该单元非零
+    private long[] mColBits;   // 有向图按列的占用位图，第 j 列第 i 位对应单元 (i, j)，删除顶点时据此找入边；无向图为 null
     private int maxVertices;
     private boolean[] vertexExists; // 跟踪哪些顶点存在
 
     public MatrixGraph(int numvertex) {
-        super(numvertex);
+        this(numvertex, false);
+    }
+
+    /** directed 为 true 时 setEdge/delEdge 只作用于 from -> to 一个方向 */
+    public MatrixGraph(int numvertex, boolean directed) {
+        super(numvertex, directed);
+        if (numvertex > MAX_CAPACITY) {
+            throw new IllegalArgumentException("邻接矩阵最多支持 " + MAX_CAPACITY + " 个顶点: " + numvertex);
+        }
         this.maxVertices = numvertex;
-        mMatrix = new int[numvertex][numvertex];
+        mMatrix = new int[numvertex * numvertex];
+        mRowBits = new long[numvertex * wordsFor(numvertex)];
+        if (directed) {
+            mColBits = new long[numvertex * wordsFor(numvertex)];
+        }
         vertexExists = new boolean[numvertex];
         for(int i = 0;i < numvertex;i ++ )
         {
-            for(int j = 0;j < numvertex;j ++)
-            {
-                mMatrix[i][j] = 0;
-            }
             vertexExists[i] = true; // 初始顶点都存在
         }
     }
 
-    /** 动态添加顶点 */
-    public void addVertex() {
-        // 如果当前顶点数已经达到最大容量，需要扩展矩阵
-        if (verticesNumber() >= maxVertices) {
-            expandMatrix();
-        }
-        // 调用基类的addVertex方法增加顶点数
-        super.addVertex();
+    private static int wordsFor(int vertices) {
+        return (vertices + 63) >>> 6;
     }
 
-    /** 扩展矩阵大小 */
-    private void expandMatrix() {
-        int newSize = maxVertices * 2;
-        int[][] newMatrix = new int[newSize][newSize];
-        boolean[] newVertexExists = new boolean[newSize];
-        
-        // 复制原有数据
-        for (int i = 0; i < maxVertices; i++) {
-            for (int j = 0; j < maxVertices; j++) {
-                newMatrix[i][j] = mMatrix[i][j];
+    private int cell(int from, int to) {
+        return from * maxVertices + to;
+    }
+
+    private int rowWords(int from) {
+        return from * wordsFor(maxVertices);
+    }
+
+    /** 写入一个矩阵单元并同步占用位图 */
+    private void setCell(int from, int to, int weight) {
+        mMatrix[cell(from, to)] = weight;
+        int w = rowWords(from) + (to >>> 6);
+        if (weight != 0) {
+            mRowBits[w] |= 1L << to;
+        } else {
+            mRowBits[w] &= ~(1L << to);
+        }
+        if (mColBits != null) {
+            int c = rowWords(to) + (from >>> 6); // 列位图与行位图同样布局
+            if (weight != 0) {
+                mColBits[c] |= 1L << from;
+            } else {
+                mColBits[c] &= ~(1L << from);
             }
-            newVertexExists[i] = vertexExists[i];
         }
-        
-        // 初始化新区域
-        for (int i = maxVertices; i < newSize; i++) {
-            for (int j = 0; j < newSize; j++) {
-                newMatrix[i][j] = 0;
+    }
+
+    /** 返回 from 行中第一个不小于 start 的非零列，没有则返回 -1 */
+    private int nextNeighbor(int from, int start) {
+        int n = verticesNumber();
+        if (start >= n) return -1;
+        int base = rowWords(from);
+        int wordIndex = start >>> 6;
+        int words = wordsFor(n);
+        long word = mRowBits[base + wordIndex] & (-1L << start);
+        while (true) {
+            if (word != 0) {
+                int col = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                return col < n ? col : -1;
             }
-            newVertexExists[i] = false; // 新顶点初始不存在
+            if (++wordIndex >= words) return -1;
+            word = mRowBits[base + wordIndex];
         }
-        
+    }
+
+    /** 父类扩容时同步扩展矩阵，addVertex/addVertices 都会经过这里 */
+    @Override
+    public void ensureVertexCapacity(int n) {
+        super.ensureVertexCapacity(n);
+        ensureCapacity(n);
+    }
+
+    /** 预留至少 vertices 个顶点的矩阵空间，容量不足时按两倍增长 */
+    public void ensureCapacity(int vertices) {
+        if (vertices <= maxVertices) return;
+        if (vertices > MAX_CAPACITY) {
+            throw new IllegalArgumentException("邻接矩阵最多支持 " + MAX_CAPACITY + " 个顶点: " + vertices);
+        }
+        int newSize = (int) Math.min(MAX_CAPACITY, Math.max(vertices, maxVertices * 2L));
+        int oldWords = wordsFor(maxVertices);
+        int newWords = wordsFor(newSize);
+        int[] newMatrix = new int[newSize * newSize];
+        long[] newRowBits = new long[newSize * newWords];
+        long[] newColBits = mColBits == null ? null : new long[newSize * newWords];
+        boolean[] newVertexExists = new boolean[newSize]; // 新顶点初始不存在
+
+        // 按行整体复制原有数据
+        for (int i = 0; i < maxVertices; i++) {
+            System.arraycopy(mMatrix, i * maxVertices, newMatrix, i * newSize, maxVertices);
+            System.arraycopy(mRowBits, i * oldWords, newRowBits, i * newWords, oldWords);
+            if (newColBits != null) System.arraycopy(mColBits, i * oldWords, newColBits, i * newWords, oldWords);
+        }
+        System.arraycopy(vertexExists, 0, newVertexExists, 0, maxVertices);
+
         mMatrix = newMatrix;
+        mRowBits = newRowBits;
+        mColBits = newColBits;
         vertexExists = newVertexExists;
         maxVertices = newSize;
     }
 
+    /** 按压缩后的编号重建矩阵，只复制被占用的单元 */
     @Override
-    public Edge firstEdge(int onevertex) {
-        Edge medge = new Edge();
-        medge.setMfrom(onevertex);
-        for(int i = 0;i < verticesNumber();i ++)
-        {
-            if(mMatrix[onevertex][i] != 0 )
-            {
-                medge.setMto(i);
-                medge.setMweight(mMatrix[onevertex][i]);
-                return medge; // 找到第一个边立即返回
+    protected void compactStorage(int[] oldToNew, int newCount) {
+        int oldSize = maxVertices;
+        int[] oldMatrix = mMatrix;
+        long[] oldRowBits = mRowBits;
+        boolean[] oldVertexExists = vertexExists;
+        int oldWords = wordsFor(oldSize);
+
+        maxVertices = newCount;
+        mMatrix = new int[newCount * newCount];
+        mRowBits = new long[newCount * wordsFor(newCount)];
+        if (mColBits != null) {
+            mColBits = new long[newCount * wordsFor(newCount)]; // 由下面的 setCell 重新填写
+        }
+        vertexExists = new boolean[newCount];
+        for (int i = 0; i < oldToNew.length; i++) {
+            int ni = oldToNew[i];
+            if (ni < 0) continue;
+            vertexExists[ni] = oldVertexExists[i];
+            for (int w = 0; w < oldWords; w++) {
+                long word = oldRowBits[i * oldWords + w];
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    setCell(ni, oldToNew[j], oldMatrix[i * oldSize + j]);
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /** 按占用位图生成 CSR 格式的只读图，只访问非零单元 */
+    public CsrGraph toCsr() {
+        int n = verticesNumber();
+        int words = wordsFor(n);
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            int base = rowWords(i);
+            int degree = 0;
+            for (int w = 0; w < words; w++) {
+                degree += Long.bitCount(mRowBits[base + w]);
             }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int pos = offsets[i];
+            for (int j = nextNeighbor(i, 0); j >= 0; j = nextNeighbor(i, j + 1)) {
+                targets[pos] = j;
+                weights[pos++] = mMatrix[cell(i, j)];
+            }
+        }
+        return new CsrGraph(offsets, targets, weights, isDirected());
+    }
+
+    /**
+     * 生成当前时刻的只读快照，供算法在矩阵继续被修改时使用。
+     * 扁平矩阵无法按行共享，因此直接转成 CSR 图，代价为 O(V²/64 + E)。
+     */
+    public Graph snapshot() {
+        CsrGraph snapshot = toCsr();
+        snapshot.copyTombstonesFrom(this);
+        return snapshot;
+    }
+
+    @Override
+    public Edge firstEdge(int onevertex) {
+        int to = nextNeighbor(onevertex, 0);
+        if (to >= 0) {
+            return new Edge(onevertex, to, mMatrix[cell(onevertex, to)]); // 通过位图直接跳到第一个边
         }
         return null; // 没有边
     }
@@ -80,62 +202,92 @@ public class MatrixGraph extends Graph{
     @Override
     public Edge nextEdge(Edge pre) {
         int from = pre.getMfrom();
-        int start = pre.getMto() + 1;
-        for(int i = start;i < verticesNumber();i ++)
-            if(mMatrix[from][i] != 0 ){
-                Edge mEdge = new Edge(from ,i , mMatrix[from][i]);
-                return mEdge;
-            }
+        int to = nextNeighbor(from, pre.getMto() + 1);
+        if (to >= 0) {
+            return new Edge(from, to, mMatrix[cell(from, to)]);
+        }
         return null;
     }
 
+    @Override
+    public void forEachNeighbor(int onevertex, NeighborConsumer action) {
+        int rowStart = cell(onevertex, 0);
+        int base = rowWords(onevertex);
+        int words = wordsFor(verticesNumber());
+        for (int w = 0; w < words; w++) {
+            long word = mRowBits[base + w];
+            while (word != 0) {
+                int col = (w << 6) + Long.numberOfTrailingZeros(word);
+                action.accept(col, mMatrix[rowStart + col]);
+                word &= word - 1;
+            }
+        }
+    }
+
     @Override
     public void setEdge(int from, int to, int weight) {
+        checkLiveVertex(from);
+        checkLiveVertex(to);
         // 设置正向边
-        if(mMatrix[from][to] == 0 ) {
-            incEdgeNumber();
-            incIndegree(to);
-        }
-        mMatrix[from][to] = weight;
+        putCell(from, to, weight);
 
         // 设置反向边 (实现无向图)
-        if (from != to) {
-            if (mMatrix[to][from] == 0) {
-                incEdgeNumber();
-                incIndegree(from);
-            }
-            mMatrix[to][from] = weight;
+        if (from != to && !isDirected()) {
+            putCell(to, from, weight);
         }
     }
 
+    /** 写入单元并维护统计：权重 0 表示无边，所以写 0 相当于删除 */
+    private void putCell(int from, int to, int weight) {
+        int old = mMatrix[cell(from, to)];
+        if (old == 0 && weight != 0) {
+            onArcAdded(from, to);
+        } else if (old != 0 && weight == 0) {
+            onArcRemoved(from, to);
+        } else if (old != weight) {
+            touch(); // 只改了权重
+        }
+        setCell(from, to, weight);
+    }
+
     @Override
     public void delEdge(int from, int to) {
         // 删除正向边
-        if(mMatrix[from][to] > 0) {
-            decEdgeNumber();
-            decIndegree(to);
-        }
-        mMatrix[from][to] = 0;
+        putCell(from, to, 0);
 
         // 删除反向边 (实现无向图)
-        if (from != to) {
-            if (mMatrix[to][from] > 0) {
-                decEdgeNumber();
-                decIndegree(from);
-            }
-            mMatrix[to][from] = 0;
+        if (from != to && !isDirected()) {
+            putCell(to, from, 0);
         }
     }
     
-    /** 覆盖基类方法，因为每条无向边实际上存储了2条有向边 */
+    /** 按列位图找指向 v 的顶点，O(V/64 + 入度) */
+    @Override
+    protected int[] inNeighbors(int v) {
+        if (mColBits == null) return super.inNeighbors(v);
+        int[] sources = new int[inDegree(v)];
+        int count = 0;
+        int base = rowWords(v);
+        int words = wordsFor(verticesNumber());
+        for (int w = 0; w < words && count < sources.length; w++) {
+            long word = mColBits[base + w];
+            while (word != 0 && count < sources.length) {
+                sources[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return sources;
+    }
+
+    /** 覆盖基类方法，因为每条无向边实际上存储了2条有向边；有向图按实际条数 */
     @Override
     public int edgesNumber() {
-        return super.edgesNumber() / 2;
+        return isDirected() ? arcsNumber() : arcsNumber() / 2;
     }
 
     @Override
     public boolean isEdge(Edge edge) {
-        return mMatrix[edge.getMfrom()][edge.getMto()] != 0 ;
+        return mMatrix[cell(edge.getMfrom(), edge.getMto())] != 0 ;
     }
 
     @Override
@@ -179,7 +331,7 @@ public class MatrixGraph extends Graph{
     /** 获取边的权重 */
     public int getEdge(int from, int to) {
         if (from >= 0 && from < maxVertices && to >= 0 && to < maxVertices) {
-            return mMatrix[from][to];
+            return mMatrix[cell(from, to)];
         }
         return 0;
     }
@@ -219,7 +371,7 @@ public class MatrixGraph extends Graph{
         for (int vertexId : existingVertices) {
             sb.append(String.format("%2d|", vertexId));
             for (int otherVertexId : existingVertices) {
-                sb.append(String.format("%3d", mMatrix[vertexId][otherVertexId]));
+                sb.append(String.format("%3d", mMatrix[cell(vertexId, otherVertexId)]));
             }
             sb.append("\n");
         }
@@ -230,42 +382,22 @@ public class MatrixGraph extends Graph{
     /** 清空所有边 */
     public void clearAllEdges() {
         int n = verticesNumber();
+        int words = wordsFor(n);
+        // 借助位图只清零被占用的单元
         for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                if (mMatrix[i][j] != 0) {
-                    mMatrix[i][j] = 0;
+            int base = rowWords(i);
+            for (int w = 0; w < words; w++) {
+                long word = mRowBits[base + w];
+                while (word != 0) {
+                    mMatrix[cell(i, (w << 6) + Long.numberOfTrailingZeros(word))] = 0;
+                    word &= word - 1;
                 }
+                mRowBits[base + w] = 0;
             }
         }
-        // 重置边数
-        while (super.edgesNumber() > 0) {
-            decEdgeNumber();
-        }
-    }
-    
-    /** 随机生成连通图 */
-    public void generateRandomGraph() {
-        clearAllEdges(); // 先清空所有边
-        
-        int n = verticesNumber();
-        if (n <= 1) return;
-        
-        // 确保图连通：生成一个生成树
-        for (int i = 1; i < n; i++) {
-            int from = (int)(Math.random() * i);
-            int weight = (int)(Math.random() * 10) + 1; // 权重1-10
-            setEdge(from, i, weight);
-        }
-        
-        // 随机添加一些额外边
-        int extraEdges = (int)(Math.random() * (n * 2)) + n; // 额外边数：n到3n之间
-        for (int i = 0; i < extraEdges; i++) {
-            int from = (int)(Math.random() * n);
-            int to = (int)(Math.random() * n);
-            if (from != to) {
-                int weight = (int)(Math.random() * 10) + 1;
-                setEdge(from, to, weight);
-            }
+        if (mColBits != null) {
+            Arrays.fill(mColBits, 0L);
         }
+        resetEdgeStatistics();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,41 @@
+package org.example.core;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/** kruskal、LongKruskal、DoubleKruskal 共用的 Kruskal 主循环，三者只在边的类型和权重比较上不同 */
+final class MinimumSpanningTree {
+    private MinimumSpanningTree() {
+    }
+
+    /**
+     * 按权重升序（相同时按起点、终点编号，保证结果稳定）选边，edges 会被重排和覆盖。
+     * @param vertices 顶点编号的上限
+     * @param live 存活顶点数，已删除的顶点不参与生成树
+     * @return 最小生成树的边，图不连通时返回 null
+     */
+    static <E> E[] kruskal(E[] edges, Comparator<E> byWeight,
+                           ToIntFunction<E> from, ToIntFunction<E> to,
+                           int vertices, int live) {
+        Arrays.sort(edges, byWeight.thenComparingInt(from).thenComparingInt(to));
+        int need = Math.max(0, live - 1); // 空图也不会得到负长度
+        UnionFind uf = new UnionFind(vertices);
+        int count = 0;
+        // 选中的边依次移到数组前部，写入位置不会超过读取位置
+        for (int i = 0; i < edges.length && count < need; i++) {
+            E e = edges[i];
+            int u = from.applyAsInt(e);
+            int v = to.applyAsInt(e);
+            if (!uf.isConnected(u, v)) {
+                uf.union(u, v);
+                edges[count++] = e;
+            }
+        }
+        if (count != need) {
+            System.err.println("最小生成树不存在！");
+            return null;
+        }
+        return Arrays.copyOf(edges, need);
+    }
+}
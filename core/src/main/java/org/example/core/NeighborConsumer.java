@@ -0,0 +1,7 @@
+package org.example.core;
+
+/** 邻居回调：依次接收邻接顶点编号及对应边的权重，遍历过程中不创建 Edge 对象 */
+@FunctionalInterface
+public interface NeighborConsumer {
+    void accept(int to, int weight);
+}
@@ -0,0 +1,61 @@
+package org.example.core;
+
+/**
+ * 只读图（CSR 快照、邻接表快照、内存映射图、压缩图）的公共基类。
+ * 所有修改图的方法都抛出 UnsupportedOperationException，子类只需实现遍历和查询。
+ */
+abstract class ReadOnlyGraph extends Graph {
+
+    ReadOnlyGraph(int numvertex, boolean directed) {
+        super(numvertex, directed);
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException(getClass().getSimpleName() + " 为只读图");
+    }
+
+    @Override
+    public void setEdge(int from, int to, int weight) {
+        throw readOnly();
+    }
+
+    @Override
+    public void delEdge(int from, int to) {
+        throw readOnly();
+    }
+
+    @Override
+    public void addVertices(int count) {
+        throw readOnly();
+    }
+
+    @Override
+    public void removeVertex(int v) {
+        throw readOnly();
+    }
+
+    @Override
+    public int allocateVertex() {
+        throw readOnly();
+    }
+
+    @Override
+    public void restoreVertex(int v) {
+        throw readOnly();
+    }
+
+    @Override
+    public int[] compact() {
+        throw readOnly();
+    }
+
+    @Override
+    public void clearAllEdges() {
+        throw readOnly();
+    }
+
+    @Override
+    public void generateRandomGraph() {
+        throw readOnly();
+    }
+}
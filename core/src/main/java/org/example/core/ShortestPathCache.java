@@ -0,0 +1,78 @@
+package org.example.core;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 最短路径树的 LRU 缓存，按起点保存最近用过的若干棵树。
+ * 每棵树记录了计算时图的版本号，图被修改（版本号变化）后整个缓存作废，下次查询时重算；
+ * 同一起点的重复查询只需沿前驱走一遍路径。方法都是同步的，可供多个线程共用。
+ */
+public class ShortestPathCache {
+    private final Graph graph;
+    private final Dijkstra dijkstra;
+    private final LinkedHashMap<Integer, ShortestPathTree> trees;
+    private long version;
+    private long hits;
+    private long misses;
+
+    public ShortestPathCache(Graph graph, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("缓存容量必须为正数: " + capacity);
+        }
+        this.graph = graph;
+        this.dijkstra = new Dijkstra(graph, false);
+        this.version = graph.version();
+        // 访问顺序的 LinkedHashMap，超过容量时淘汰最久未用的树
+        this.trees = new LinkedHashMap<Integer, ShortestPathTree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ShortestPathTree> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** 取 source 的最短路径树，不在缓存中或图已修改时重新计算 */
+    public synchronized ShortestPathTree get(int source) {
+        if (graph.version() != version) {
+            trees.clear();
+            version = graph.version();
+        }
+        ShortestPathTree tree = trees.get(source);
+        if (tree != null) {
+            hits++;
+            return tree;
+        }
+        misses++;
+        tree = dijkstra.shortestPathTree(source);
+        trees.put(source, tree);
+        return tree;
+    }
+
+    /** 从 start 到 end 的最短路径，不可达时返回空列表 */
+    public List<Integer> findShortestPath(int start, int end) {
+        return get(start).pathTo(end);
+    }
+
+    /** 从 start 到 end 的最短距离，不可达时为 Integer.MAX_VALUE */
+    public int distance(int start, int end) {
+        return get(start).distance(end);
+    }
+
+    public synchronized void clear() {
+        trees.clear();
+    }
+
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+}
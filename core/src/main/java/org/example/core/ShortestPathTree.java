@@ -0,0 +1,57 @@
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 单源最短路径树：从 source 到每个顶点的最短距离和路径上的前驱。
+ * 计算一次后可反复查询，取任意终点的路径为 O(路径长度)。对象创建后不再修改，可在线程间共享。
+ */
+public class ShortestPathTree {
+    private final int source;
+    private final long version;
+    private final int[] dist;
+    private final int[] prev;
+
+    ShortestPathTree(int source, long version, int[] dist, int[] prev) {
+        this.source = source;
+        this.version = version;
+        this.dist = dist;
+        this.prev = prev;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /** 计算时图的版本号，与 Graph.version() 不同说明图已被修改 */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isReachable(int v) {
+        return v >= 0 && v < dist.length && dist[v] != Integer.MAX_VALUE;
+    }
+
+    /** 到 v 的最短距离，不可达时为 Integer.MAX_VALUE */
+    public int distance(int v) {
+        return dist[v];
+    }
+
+    /** v 在最短路径上的前驱，起点和不可达顶点为 -1 */
+    public int parent(int v) {
+        return prev[v];
+    }
+
+    /** 从起点到 v 的路径（包含两端），不可达时返回空列表 */
+    public List<Integer> pathTo(int v) {
+        List<Integer> path = new ArrayList<>();
+        if (!isReachable(v)) return path;
+        for (int at = v; at != -1; at = prev[at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * 单个顶点的邻接表：按目标顶点升序存放在可增长的 int 数组中。
+ * 查找和改权重通过二分查找完成，插入时容量按 1.5 倍增长。
+ */
+class SortedAdjacency extends Adjacency {
+    private static final int[] EMPTY = new int[0];
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] targets = EMPTY;
+    private int[] weights = EMPTY;
+    private int size;
+
+    SortedAdjacency() {
+    }
+
+    /** 从其他实现（如哈希邻接表）转换回有序数组 */
+    SortedAdjacency(Adjacency source) {
+        if (source.size() > 0) {
+            this.targets = new int[source.size()];
+            this.weights = new int[source.size()];
+            this.size = source.size();
+            source.copyTo(targets, weights, 0);
+        }
+    }
+
+    /** 用已按目标升序排好且无重复的区间 [from, from + size) 初始化 */
+    SortedAdjacency(int[] sortedTargets, int[] sortedWeights, int from, int size) {
+        if (size > 0) {
+            this.targets = Arrays.copyOfRange(sortedTargets, from, from + size);
+            this.weights = Arrays.copyOfRange(sortedWeights, from, from + size);
+            this.size = size;
+        }
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    int target(int i) {
+        return targets[i];
+    }
+
+    @Override
+    int weight(int i) {
+        return weights[i];
+    }
+
+    /** 与 Arrays.binarySearch 约定相同：找到返回下标，否则返回 -(插入点) - 1 */
+    int indexOf(int to) {
+        return search(targets, size, to);
+    }
+
+    /*
+     * 以下静态方法操作“升序目标数组 + 并行权重数组”这一行结构，本类和 WideAdjListGraph（权重为 long[]）共用，
+     * 权重数组只经 System.arraycopy 搬移，因此按 Object 传入。
+     */
+
+    /** 在 targets 的前 size 项中二分查找 to，约定同 indexOf */
+    static int search(int[] targets, int size, int to) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int t = targets[mid];
+            if (t < to) lo = mid + 1;
+            else if (t > to) hi = mid - 1;
+            else return mid;
+        }
+        return -(lo + 1);
+    }
+
+    @Override
+    int upperBound(int to) {
+        int i = indexOf(to);
+        return i >= 0 ? i + 1 : -(i + 1);
+    }
+
+    @Override
+    boolean contains(int to) {
+        return indexOf(to) >= 0;
+    }
+
+    @Override
+    int weightOf(int to) {
+        int i = indexOf(to);
+        return i >= 0 ? weights[i] : 0;
+    }
+
+    @Override
+    boolean put(int to, int weight) {
+        int i = indexOf(to);
+        if (i >= 0) {
+            weights[i] = weight;
+            return false;
+        }
+        i = -(i + 1);
+        if (size == targets.length) {
+            int capacity = grownCapacity(size);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        openSlot(targets, weights, i, size);
+        targets[i] = to;
+        weights[i] = weight;
+        size++;
+        return true;
+    }
+
+    @Override
+    boolean remove(int to) {
+        int i = indexOf(to);
+        if (i < 0) {
+            return false;
+        }
+        closeSlot(targets, weights, i, size);
+        size--;
+        return true;
+    }
+
+    /** 行用满时的新容量，按 1.5 倍增长；从 CSR 区间或哈希表转换来的行容量可能只有 1，至少给到 INITIAL_CAPACITY */
+    static int grownCapacity(int capacity) {
+        return Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+    }
+
+    /** 把下标 i 起的项后移一位，腾出位置 i；数组须还有空位 */
+    static void openSlot(int[] targets, Object weights, int i, int size) {
+        System.arraycopy(targets, i, targets, i + 1, size - i);
+        System.arraycopy(weights, i, weights, i + 1, size - i);
+    }
+
+    /** 删除下标 i 处的项，后面的项前移一位 */
+    static void closeSlot(int[] targets, Object weights, int i, int size) {
+        System.arraycopy(targets, i + 1, targets, i, size - i - 1);
+        System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+    }
+
+    @Override
+    void clear() {
+        targets = EMPTY;
+        weights = EMPTY;
+        size = 0;
+    }
+
+    @Override
+    void forEach(NeighborConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(targets[i], weights[i]);
+        }
+    }
+
+    @Override
+    void copyTo(int[] targetsOut, int[] weightsOut, int pos) {
+        System.arraycopy(targets, 0, targetsOut, pos, size);
+        System.arraycopy(weights, 0, weightsOut, pos, size);
+    }
+
+    @Override
+    Adjacency copy() {
+        return new SortedAdjacency(this);
+    }
+
+    @Override
+    Adjacency relabel(int[] oldToNew) {
+        for (int i = 0; i < size; i++) {
+            targets[i] = oldToNew[targets[i]];
+        }
+        return this;
+    }
+}
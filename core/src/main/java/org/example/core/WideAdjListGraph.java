@@ -0,0 +1,219 @@
+package org.example.core;
+
+import java.util.Arrays;
+
+/**
+ * long/double 权重邻接表图的公共实现。
+ * 每个顶点一行：目标顶点按升序存放在 int 数组中，权重以 64 位原始值存放在并行的 long 数组中（查找和插删与 SortedAdjacency 共用），
+ * 由子类决定如何解释（long 直接存储，double 存其位模式），全程不装箱。
+ * 继承自 Graph 的 int 权重接口看到的是饱和到 int 范围的近似值，BFS/DFS 等不关心权重的算法可直接使用。
+ */
+abstract class WideAdjListGraph extends Graph {
+    private static final int[] EMPTY_TARGETS = new int[0];
+    private static final long[] EMPTY_WEIGHTS = new long[0];
+
+    private int[][] mTargets;
+    private long[][] mWeights;
+    private int[] mSizes;
+
+    WideAdjListGraph(int numvertex, boolean directed) {
+        super(numvertex, directed);
+        mTargets = new int[numvertex][];
+        mWeights = new long[numvertex][];
+        mSizes = new int[numvertex];
+        Arrays.fill(mTargets, EMPTY_TARGETS);
+        Arrays.fill(mWeights, EMPTY_WEIGHTS);
+    }
+
+    /** 把 64 位原始权重转换为 int 视图 */
+    abstract int narrow(long bits);
+
+    /** 把 int 权重转换为 64 位原始值，供继承的 setEdge(int, int, int) 使用 */
+    abstract long widen(int weight);
+
+    /** 与 Arrays.binarySearch 约定相同：找到返回下标，否则返回 -(插入点) - 1 */
+    private int indexOf(int from, int to) {
+        return SortedAdjacency.search(mTargets[from], mSizes[from], to);
+    }
+
+    /** 写入一条有向邻接项，已存在时只更新权重 */
+    void putArc(int from, int to, long bits) {
+        int i = indexOf(from, to);
+        if (i >= 0) {
+            mWeights[from][i] = bits;
+            touch(); // 只改了权重
+            return;
+        }
+        i = -(i + 1);
+        int size = mSizes[from];
+        if (size == mTargets[from].length) {
+            int capacity = SortedAdjacency.grownCapacity(size);
+            mTargets[from] = Arrays.copyOf(mTargets[from], capacity);
+            mWeights[from] = Arrays.copyOf(mWeights[from], capacity);
+        }
+        SortedAdjacency.openSlot(mTargets[from], mWeights[from], i, size);
+        mTargets[from][i] = to;
+        mWeights[from][i] = bits;
+        mSizes[from] = size + 1;
+        onArcAdded(from, to);
+    }
+
+    void removeArc(int from, int to) {
+        int i = indexOf(from, to);
+        if (i < 0) return;
+        int size = mSizes[from];
+        SortedAdjacency.closeSlot(mTargets[from], mWeights[from], i, size);
+        mSizes[from] = size - 1;
+        onArcRemoved(from, to);
+    }
+
+    /** 设置边的原始权重，无向图两个方向各存一份 */
+    void setEdgeBits(int from, int to, long bits) {
+        checkLiveVertex(from);
+        checkLiveVertex(to);
+        putArc(from, to, bits);
+        if (from != to && !isDirected()) {
+            putArc(to, from, bits);
+        }
+    }
+
+    /** 返回边的原始权重，边不存在时返回 absent */
+    long edgeBits(int from, int to, long absent) {
+        int i = indexOf(from, to);
+        return i >= 0 ? mWeights[from][i] : absent;
+    }
+
+    /** 按升序遍历顶点的邻接项，回调接收原始权重 */
+    void forEachArc(int onevertex, LongNeighborConsumer action) {
+        int[] targets = mTargets[onevertex];
+        long[] weights = mWeights[onevertex];
+        int size = mSizes[onevertex];
+        for (int i = 0; i < size; i++) {
+            action.accept(targets[i], weights[i]);
+        }
+    }
+
+    @Override
+    public Edge firstEdge(int onevertex) {
+        if (mSizes[onevertex] > 0) {
+            return new Edge(onevertex, mTargets[onevertex][0], narrow(mWeights[onevertex][0]));
+        }
+        return null; // 没有边
+    }
+
+    @Override
+    public Edge nextEdge(Edge pre) {
+        if (pre == null) return null;
+        int from = pre.getMfrom();
+        int i = indexOf(from, pre.getMto());
+        i = i >= 0 ? i + 1 : -(i + 1);
+        if (i < mSizes[from]) {
+            return new Edge(from, mTargets[from][i], narrow(mWeights[from][i]));
+        }
+        return null; // 到邻接表末尾
+    }
+
+    @Override
+    public void forEachNeighbor(int onevertex, NeighborConsumer action) {
+        int[] targets = mTargets[onevertex];
+        long[] weights = mWeights[onevertex];
+        int size = mSizes[onevertex];
+        for (int i = 0; i < size; i++) {
+            action.accept(targets[i], narrow(weights[i]));
+        }
+    }
+
+    @Override
+    public void setEdge(int from, int to, int weight) {
+        setEdgeBits(from, to, widen(weight));
+    }
+
+    @Override
+    public void delEdge(int from, int to) {
+        removeArc(from, to);
+        if (from != to && !isDirected()) {
+            removeArc(to, from);
+        }
+    }
+
+    @Override
+    public boolean isEdge(Edge edge) {
+        if (edge == null) return false;
+        return indexOf(edge.getMfrom(), edge.getMto()) >= 0;
+    }
+
+    @Override
+    public int fromVertex(Edge edge) {
+        return edge.getMfrom();
+    }
+
+    @Override
+    public int toVertex(Edge edge) {
+        return edge.getMto();
+    }
+
+    @Override
+    public int weight(Edge edge) {
+        return edge.getMweight();
+    }
+
+    /** 逻辑边数：无向边在邻接表中存了两次，有向边只存一次 */
+    public int edgeNumbers() {
+        return isDirected() ? edgesNumber() : edgesNumber() / 2;
+    }
+
+    @Override
+    public void addVertices(int count) {
+        int oldSize = verticesNumber();
+        super.addVertices(count);
+        for (int i = oldSize; i < verticesNumber(); i++) {
+            mTargets[i] = EMPTY_TARGETS;
+            mWeights[i] = EMPTY_WEIGHTS;
+            mSizes[i] = 0;
+        }
+    }
+
+    @Override
+    public void ensureVertexCapacity(int n) {
+        super.ensureVertexCapacity(n);
+        if (n > mSizes.length) {
+            int newCapacity = Math.max(n, mSizes.length * 2);
+            mTargets = Arrays.copyOf(mTargets, newCapacity);
+            mWeights = Arrays.copyOf(mWeights, newCapacity);
+            mSizes = Arrays.copyOf(mSizes, newCapacity);
+        }
+    }
+
+    /** 按压缩后的编号搬移各行；映射保持相对顺序，行内目标改写后仍然有序 */
+    @Override
+    protected void compactStorage(int[] oldToNew, int newCount) {
+        int[][] newTargets = new int[newCount][];
+        long[][] newWeights = new long[newCount][];
+        int[] newSizes = new int[newCount];
+        for (int v = 0; v < oldToNew.length; v++) {
+            int nv = oldToNew[v];
+            if (nv < 0) continue;
+            int[] targets = mTargets[v];
+            for (int i = 0; i < mSizes[v]; i++) {
+                targets[i] = oldToNew[targets[i]];
+            }
+            newTargets[nv] = targets;
+            newWeights[nv] = mWeights[v];
+            newSizes[nv] = mSizes[v];
+        }
+        mTargets = newTargets;
+        mWeights = newWeights;
+        mSizes = newSizes;
+    }
+
+    @Override
+    public void clearAllEdges() {
+        int n = verticesNumber();
+        for (int i = 0; i < n; i++) {
+            mTargets[i] = EMPTY_TARGETS;
+            mWeights[i] = EMPTY_WEIGHTS;
+            mSizes[i] = 0;
+        }
+        resetEdgeStatistics();
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.core;
+
+import java.util.*;
+
+/**
+ * LongDijkstra 和 DoubleDijkstra 的公共实现，在 WideAdjListGraph 的 64 位原始权重上搜索。
+ * 距离同样以原始值保存：long 直接存储，double 存位模式。非负 double 的位模式按 long 比较与数值顺序一致，
+ * 所以比较、带索引的 d 叉堆和路径重建都不区分权重类型，子类只负责两个原始值相加和日志中的显示。
+ * 关闭日志后搜索过程不分配对象，数组和堆在顶点数不变时重复使用。
+ */
+abstract class WideDijkstra {
+    private final WideAdjListGraph graph;
+    long[] dist;
+    private int[] prev;
+    private boolean[] visited;
+    private List<String> logSteps; // 用于记录计算过程的日志
+    private final boolean logging;
+    private IndexedDaryHeap heap;
+    private int current; // 正在展开的顶点，供 relax 使用
+    private final LongNeighborConsumer relaxer = this::relax;
+
+    WideDijkstra(WideAdjListGraph graph, boolean logging) {
+        this.graph = graph;
+        this.logging = logging;
+        this.logSteps = new ArrayList<>();
+    }
+
+    /** 不可达的距离，须大于所有可达距离的原始值 */
+    abstract long unreachable();
+
+    /** from -> to 经过原始权重为 weight 的边后的距离，结果不可表示时返回 unreachable() */
+    abstract long extend(int from, int to, long distance, long weight);
+
+    /** 日志中显示的距离 */
+    abstract String format(long distance);
+
+    /**
+     * 计算从 start 到 end 的最短路径，边权须为非负数
+     * @return 最短路径的顶点列表（包含 start 和 end），如果不可达则返回空列表
+     */
+    public List<Integer> findShortestPath(int start, int end) {
+        int n = graph.verticesNumber();
+        if (start < 0 || start >= n || end < 0 || end >= n) {
+            logSteps.add("错误: 顶点索引越界");
+            return new ArrayList<>();
+        }
+        if (graph.isVertexRemoved(start) || graph.isVertexRemoved(end)) {
+            logSteps.add("错误: 顶点已被删除");
+            return new ArrayList<>();
+        }
+
+        if (dist == null || dist.length != n) {
+            dist = new long[n];
+            prev = new int[n];
+            visited = new boolean[n];
+            heap = new IndexedDaryHeap(n);
+        } else {
+            Arrays.fill(visited, false);
+            heap.clear();
+        }
+
+        Arrays.fill(dist, unreachable());
+        Arrays.fill(prev, -1);
+
+        dist[start] = 0; // long 的 0 和 double 0.0 的位模式都是 0
+        heap.insert(start, 0);
+
+        logSteps.clear();
+        if (logging) logSteps.add("初始化: 起点 " + start + " 距离设为 0，其他无穷大");
+
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+
+            if (u == end) {
+                if (logging) logSteps.add("已到达目标点 " + end + "，当前最短距离: " + format(dist[u]));
+                break;
+            }
+
+            visited[u] = true;
+            if (logging) logSteps.add("访问顶点 " + u + " (距离: " + format(dist[u]) + ")");
+
+            current = u;
+            graph.forEachArc(u, relaxer);
+        }
+
+        List<Integer> path = new ArrayList<>();
+        if (dist[end] == unreachable()) {
+            if (logging) logSteps.add("无法到达终点 " + end);
+            return path; // 无路径
+        }
+
+        // 重建路径
+        for (int at = end; at != -1; at = prev[at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+
+        return path;
+    }
+
+    private void relax(int v, long weight) {
+        int u = current;
+        long candidate = extend(u, v, dist[u], weight);
+        if (!visited[v] && candidate < dist[v]) {
+            dist[v] = candidate;
+            prev[v] = u;
+            heap.insertOrDecrease(v, candidate);
+            if (logging) logSteps.add("  -> 更新邻居 " + v + " : 新距离 " + format(candidate) + " (通过 " + u + ")");
+        }
+    }
+
+    /** 上一次查询中 end 是否有距离可读 */
+    boolean hasDistance(int end) {
+        return dist != null && end >= 0 && end < dist.length;
+    }
+
+    public String getProcessLog() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Dijkstra 计算过程 ===\n");
+        for (String step : logSteps) {
+            sb.append(step).append("\n");
+        }
+        return sb.toString();
+    }
+}
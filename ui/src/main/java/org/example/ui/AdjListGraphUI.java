@@ -12,6 +12,7 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Line;
+import javafx.scene.shape.Polygon;
 import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.util.Duration;
@@ -19,6 +20,7 @@ import org.example.core.*;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -36,10 +38,24 @@ public class AdjListGraphUI {
     private Map<Integer, Circle> nodes = new HashMap<>();
     private Map<Integer, Text> nodeLabels = new HashMap<>();
 
+    private static final double NODE_RADIUS = 20;
+
     private static class EdgeUI {
+        final int from, to;
         Line line;
         Text label;
-        EdgeUI(Line line, Text label) { this.line = line; this.label = label; }
+        Polygon arrow; // 只有有向图的弧才画箭头
+        EdgeUI(int from, int to, Line line, Text label, Polygon arrow) {
+            this.from = from; this.to = to; this.line = line; this.label = label; this.arrow = arrow;
+        }
+        void paint(Color color, double width) {
+            line.setStroke(color); line.setStrokeWidth(width);
+            if (arrow != null) arrow.setFill(color);
+        }
+        void removeFrom(Pane pane) {
+            pane.getChildren().removeAll(line, label);
+            if (arrow != null) pane.getChildren().remove(arrow);
+        }
     }
 
     private Map<String, EdgeUI> edges = new HashMap<>();
@@ -226,22 +242,22 @@ public class AdjListGraphUI {
     
     private void highlightEdge(Edge edge, Color color) {
         if (edge == null) return;
-        int u = edge.getMfrom();
-        int v = edge.getMto();
-        int min = Math.min(u, v);
-        int max = Math.max(u, v);
-        String key = min + "-" + max;
-        EdgeUI ui = edges.get(key);
-        if (ui != null) {
-            ui.line.setStroke(color);
-            ui.line.setStrokeWidth(4);
-        }
+        EdgeUI ui = edges.get(edgeKey(edge.getMfrom(), edge.getMto()));
+        if (ui != null) ui.paint(color, 4);
+    }
+
+    /** 无向图两个方向共用一条连线，有向图 u->v 与 v->u 是两条弧，各有一条带箭头的连线 */
+    private String edgeKey(int from, int to) {
+        if (graph.isDirected()) return from + "-" + to;
+        return Math.min(from, to) + "-" + Math.max(from, to);
     }
 
     public void renderFromDSL(String dslText) {
         if (dslText == null || dslText.trim().isEmpty()) return;
         
-        this.graph = new AdjListGraph(5);
+        // 单独一行 "directed" 表示按有向图处理 u -> v
+        boolean directed = dslText.lines().anyMatch(l -> l.trim().equalsIgnoreCase("directed"));
+        this.graph = new AdjListGraph(5, directed);
         clearInternalGraphState(); 
         for (int i = 0; i < 5; i++) addVertexUIOnly(i);
 
@@ -262,9 +278,7 @@ public class AdjListGraphUI {
                         w = Integer.parseInt(vw[1].trim());
                     } else { v = Integer.parseInt(rightPart); }
                     
-                    while (graph.verticesNumber() <= Math.max(u, v)) { 
-                        graph.addVertex(); 
-                    }
+                    ensureGraphVertex(Math.max(u, v));
                     addVertexUIOnly(u); addVertexUIOnly(v);
                     edgesToAdd.add(new int[]{u, v, w});
                 } catch (Exception e) { System.out.println("DSL 解析错误: " + line); }
@@ -299,19 +313,23 @@ public class AdjListGraphUI {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("保存图结构");
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Graph Files", "*.graph"));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Binary Graph Files", "*.hkg"));
         fileChooser.setInitialFileName("adj_graph.graph");
         File file = fileChooser.showSaveDialog(root.getScene().getWindow());
         if (file == null) return;
+        if (file.getName().endsWith(".hkg")) { saveBinaryGraph(file); return; }
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            if (graph.isDirected()) { writer.write("directed"); writer.newLine(); }
             for (Map.Entry<Integer, Circle> entry : nodes.entrySet()) {
                 int id = entry.getKey(); Circle c = entry.getValue();
                 writer.write(String.format("V,%d,%.2f,%.2f", id, c.getCenterX(), c.getCenterY()));
                 writer.newLine();
             }
             int n = graph.verticesNumber();
+            boolean directed = graph.isDirected();
             for (int i = 0; i < n; i++) {
                 for (org.example.core.Edge e = graph.firstEdge(i); e != null; e = graph.nextEdge(e)) {
-                    if (e.getMfrom() < e.getMto()) {
+                    if (directed || e.getMfrom() < e.getMto()) { // 无向边只写一次，有向图每条弧都要写
                         writer.write(String.format("E,%d,%d,%d", e.getMfrom(), e.getMto(), e.getMweight()));
                         writer.newLine();
                     }
@@ -324,32 +342,75 @@ public class AdjListGraphUI {
     public void loadGraph() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("打开图文件");
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Graph Files", "*.graph"));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Graph Files", "*.graph", "*.hkg"));
         File file = fileChooser.showOpenDialog(root.getScene().getWindow());
         if (file == null) return;
         clearInternalGraphState();
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 0) continue;
-                if (parts[0].equals("V")) {
-                    int id = Integer.parseInt(parts[1]);
-                    double x = Double.parseDouble(parts[2]);
-                    double y = Double.parseDouble(parts[3]);
-                    if (id >= graph.verticesNumber()) { while (graph.verticesNumber() <= id) graph.addVertex(); }
-                    addVertexUIOnly(id);
-                    Circle c = nodes.get(id);
-                    if (c != null) { c.setCenterX(x); c.setCenterY(y); Text t = nodeLabels.get(id); if(t!=null) { t.setX(x-5); t.setY(y+5); } }
-                } else if (parts[0].equals("E")) {
-                    int from = Integer.parseInt(parts[1]); int to = Integer.parseInt(parts[2]); int weight = Integer.parseInt(parts[3]);
-                    addEdge(from, to, weight);
-                }
+        try {
+            if (file.getName().endsWith(".hkg")) {
+                loadBinaryGraph(file);
+                updateAdjListDisplay();
+                return;
             }
+            // 逐条回调，边只更新图和连线，全部读完后再刷新一次邻接表显示；没有 "directed" 行的文件是无向图
+            if (graph.isDirected()) this.graph = new AdjListGraph(5);
+            GraphTextLoader.parse(file.toPath(), new GraphTextLoader.RecordHandler() {
+                @Override
+                public void vertex(int id, double x, double y) {
+                    placeVertex(id, x, y);
+                }
+
+                @Override
+                public void edge(int from, int to, int weight) {
+                    putEdge(from, to, weight);
+                }
+
+                @Override
+                public void directed() {
+                    if (!graph.isDirected()) graph = new AdjListGraph(Math.max(5, graph.verticesNumber()), true);
+                }
+            });
             updateAdjListDisplay();
         } catch (Exception ex) { ex.printStackTrace(); }
     }
 
+    private void placeVertex(int id, double x, double y) {
+        ensureGraphVertex(id);
+        addVertexUIOnly(id);
+        Circle c = nodes.get(id);
+        if (c != null) { c.setCenterX(x); c.setCenterY(y); Text t = nodeLabels.get(id); if(t!=null) { t.setX(x-5); t.setY(y+5); } }
+    }
+
+    /** 二进制格式：坐标为 NaN 的顶点没有界面节点，由关联的边补上 */
+    private void saveBinaryGraph(File file) {
+        int n = graph.verticesNumber();
+        double[] xs = new double[n]; double[] ys = new double[n];
+        Arrays.fill(xs, Double.NaN); Arrays.fill(ys, Double.NaN);
+        for (Map.Entry<Integer, Circle> entry : nodes.entrySet()) {
+            int id = entry.getKey(); Circle c = entry.getValue();
+            if (id < n) { xs[id] = c.getCenterX(); ys[id] = c.getCenterY(); }
+        }
+        try {
+            GraphFile.write(graph, xs, ys, file.toPath());
+            System.out.println("保存成功");
+        } catch (IOException ex) { ex.printStackTrace(); }
+    }
+
+    private void loadBinaryGraph(File file) throws IOException {
+        CsrGraph loaded = GraphFile.readCsr(file.toPath());
+        double[][] xy = GraphFile.readCoordinates(file.toPath());
+        int n = loaded.verticesNumber();
+        // 按文件中的方向重建图，否则当前是无向图时有向弧会被镜像
+        if (loaded.isDirected() != graph.isDirected()) this.graph = new AdjListGraph(5, loaded.isDirected());
+        for (int v = 0; v < n; v++) {
+            if (xy != null && !loaded.isVertexRemoved(v) && !Double.isNaN(xy[0][v])) placeVertex(v, xy[0][v], xy[1][v]);
+        }
+        for (int u = 0; u < n; u++) {
+            final int from = u;
+            loaded.forEachNeighbor(u, (to, weight) -> { if (loaded.isDirected() || from < to) putEdge(from, to, weight); });
+        }
+    }
+
     public void performMST() {
         stopAnimation();
         resetStyles();
@@ -357,9 +418,8 @@ public class AdjListGraphUI {
         if (mst == null) { adjListDisplay.setText("无法生成MST"); return; }
         StringBuilder sb = new StringBuilder(graph.getAdjListString()); sb.append("\n\n=== MST 边 ===\n");
         for (Edge e : mst) {
-            int min = Math.min(e.getMfrom(), e.getMto()); int max = Math.max(e.getMfrom(), e.getMto());
-            String key = min + "-" + max;
-            if (edges.containsKey(key)) { edges.get(key).line.setStroke(Color.GREEN); edges.get(key).line.setStrokeWidth(4); }
+            EdgeUI edgeUI = edges.get(edgeKey(e.getMfrom(), e.getMto()));
+            if (edgeUI != null) edgeUI.paint(Color.GREEN, 4);
             sb.append(e.getMfrom()).append("-").append(e.getMto()).append(" (").append(e.getMweight()).append(")\n");
         }
         adjListDisplay.setText(sb.toString());
@@ -403,9 +463,8 @@ public class AdjListGraphUI {
             if (i < path.size() - 1) {
                 final int nextVertexId = path.get(i + 1);
                 KeyFrame kfEdge = new KeyFrame(Duration.millis(i * 800 + 400), e -> {
-                    int min = Math.min(vertexId, nextVertexId); int max = Math.max(vertexId, nextVertexId);
-                    String key = min + "-" + max; EdgeUI edgeUI = edges.get(key);
-                    if (edgeUI != null) { edgeUI.line.setStroke(Color.RED); edgeUI.line.setStrokeWidth(4); }
+                    EdgeUI edgeUI = edges.get(edgeKey(vertexId, nextVertexId));
+                    if (edgeUI != null) edgeUI.paint(Color.RED, 4);
                 });
                 currentAnimation.getKeyFrames().add(kfEdge);
             }
@@ -413,11 +472,17 @@ public class AdjListGraphUI {
         currentAnimation.play();
     }
 
+    /** 确保图中存在编号为 id 的顶点，一次性补齐缺少的顶点，已删除的编号直接恢复 */
+    private void ensureGraphVertex(int id) {
+        if (id >= graph.verticesNumber()) graph.addVertices(id + 1 - graph.verticesNumber());
+        else if (graph.isVertexRemoved(id)) graph.restoreVertex(id);
+    }
+
     private void updateAdjListDisplay() { if (graph != null) { adjListDisplay.setText(graph.getAdjListString()); } }
 
     private void addVertexUIOnly(int id) {
         if (nodes.containsKey(id)) return;
-        Circle circle = new Circle(20, Color.LIGHTGREEN);
+        Circle circle = new Circle(NODE_RADIUS, Color.LIGHTGREEN);
         circle.setStroke(Color.BLACK);
         circle.setStrokeWidth(2);
         enableDrag(circle, id);
@@ -452,23 +517,47 @@ public class AdjListGraphUI {
     }
     
     private void updateConnectedEdges(int id) {
-        for (Map.Entry<String, EdgeUI> entry : edges.entrySet()) {
-            String[] parts = entry.getKey().split("-");
-            int v1 = Integer.parseInt(parts[0]); int v2 = Integer.parseInt(parts[1]);
-            if (v1 == id || v2 == id) {
-                Circle c1 = nodes.get(v1); Circle c2 = nodes.get(v2);
-                Line line = entry.getValue().line; Text label = entry.getValue().label;
-                line.setStartX(c1.getCenterX()); line.setStartY(c1.getCenterY());
-                line.setEndX(c2.getCenterX());   line.setEndY(c2.getCenterY());
-                label.setX((c1.getCenterX() + c2.getCenterX()) / 2);
-                label.setY((c1.getCenterY() + c2.getCenterY()) / 2 - 5);
-            }
+        for (EdgeUI edgeUI : edges.values()) {
+            if (edgeUI.from == id || edgeUI.to == id) layoutEdge(edgeUI);
+        }
+    }
+
+    /**
+     * 按两端顶点的位置摆放连线、权重和箭头。有向图的弧沿法向偏移一点并止于终点圆周，
+     * u->v 与 v->u 的法向相反，两条弧因此分开显示。
+     */
+    private void layoutEdge(EdgeUI edgeUI) {
+        Circle c1 = nodes.get(edgeUI.from); Circle c2 = nodes.get(edgeUI.to);
+        if (c1 == null || c2 == null) return;
+        double x1 = c1.getCenterX(), y1 = c1.getCenterY(), x2 = c2.getCenterX(), y2 = c2.getCenterY();
+        Line line = edgeUI.line; Text label = edgeUI.label;
+        double len = Math.hypot(x2 - x1, y2 - y1);
+        if (edgeUI.arrow == null || len <= 2 * NODE_RADIUS) {
+            line.setStartX(x1); line.setStartY(y1);
+            line.setEndX(x2);   line.setEndY(y2);
+            label.setX((x1 + x2) / 2);
+            label.setY((y1 + y2) / 2 - 5);
+            if (edgeUI.arrow != null) edgeUI.arrow.getPoints().clear();
+            return;
         }
+        double ux = (x2 - x1) / len, uy = (y2 - y1) / len; // 方向
+        double nx = -uy, ny = ux;                          // 法向
+        double offset = 4;
+        double sx = x1 + ux * NODE_RADIUS + nx * offset, sy = y1 + uy * NODE_RADIUS + ny * offset;
+        double ex = x2 - ux * NODE_RADIUS + nx * offset, ey = y2 - uy * NODE_RADIUS + ny * offset;
+        line.setStartX(sx); line.setStartY(sy);
+        line.setEndX(ex);   line.setEndY(ey);
+        edgeUI.arrow.getPoints().setAll(
+                ex, ey,
+                ex - ux * 10 + nx * 5, ey - uy * 10 + ny * 5,
+                ex - ux * 10 - nx * 5, ey - uy * 10 - ny * 5);
+        label.setX((sx + ex) / 2 + nx * 10);
+        label.setY((sy + ey) / 2 + ny * 10);
     }
 
     public void addVertex(int id) {
         if (nodes.containsKey(id)) return;
-        graph.addVertex();
+        ensureGraphVertex(id);
         addVertexUIOnly(id);
         updateAdjListDisplay();
     }
@@ -478,14 +567,12 @@ public class AdjListGraphUI {
         Text label = nodeLabels.remove(id);
         if (circle != null) graphPane.getChildren().remove(circle);
         if (label != null) graphPane.getChildren().remove(label);
-        Iterator<Map.Entry<String, EdgeUI>> it = edges.entrySet().iterator();
+        graph.removeVertex(id); // 图中一次删除所有关联边并回收编号，下面只清理界面
+        Iterator<EdgeUI> it = edges.values().iterator();
         while (it.hasNext()) {
-            Map.Entry<String, EdgeUI> entry = it.next();
-            String[] parts = entry.getKey().split("-");
-            int v1 = Integer.parseInt(parts[0]); int v2 = Integer.parseInt(parts[1]);
-            if (v1 == id || v2 == id) {
-                graph.delEdge(v1, v2);
-                graphPane.getChildren().removeAll(entry.getValue().line, entry.getValue().label);
+            EdgeUI edgeUI = it.next();
+            if (edgeUI.from == id || edgeUI.to == id) {
+                edgeUI.removeFrom(graphPane);
                 it.remove();
             }
         }
@@ -494,33 +581,36 @@ public class AdjListGraphUI {
     }
 
     public void addEdge(int from, int to, int weight) {
-        if (!nodes.containsKey(from)) { if (from >= graph.verticesNumber()) { while(graph.verticesNumber() <= from) graph.addVertex(); } addVertexUIOnly(from); }
-        if (!nodes.containsKey(to)) { if (to >= graph.verticesNumber()) { while(graph.verticesNumber() <= to) graph.addVertex(); } addVertexUIOnly(to); }
+        putEdge(from, to, weight);
+        updateAdjListDisplay();
+    }
+
+    /** 加边并画出连线，不刷新邻接表显示，批量加载时使用 */
+    private void putEdge(int from, int to, int weight) {
+        if (!nodes.containsKey(from)) { ensureGraphVertex(from); addVertexUIOnly(from); }
+        if (!nodes.containsKey(to)) { ensureGraphVertex(to); addVertexUIOnly(to); }
         if (from == to) return;
         graph.setEdge(from, to, weight);
-        int min = Math.min(from, to); int max = Math.max(from, to);
-        String edgeKey = min + "-" + max;
-        if (edges.containsKey(edgeKey)) {
-            EdgeUI oldEdge = edges.get(edgeKey);
-            graphPane.getChildren().removeAll(oldEdge.line, oldEdge.label);
-            edges.remove(edgeKey);
-        }
-        Circle c1 = nodes.get(from); Circle c2 = nodes.get(to);
-        Line line = new Line(c1.getCenterX(), c1.getCenterY(), c2.getCenterX(), c2.getCenterY());
+        String key = edgeKey(from, to);
+        EdgeUI oldEdge = edges.remove(key);
+        if (oldEdge != null) oldEdge.removeFrom(graphPane);
+        Line line = new Line();
         line.setStrokeWidth(2); line.setStroke(Color.GRAY);
-        Text text = new Text((c1.getCenterX() + c2.getCenterX()) / 2, (c1.getCenterY() + c2.getCenterY()) / 2 - 5, String.valueOf(weight));
+        Text text = new Text(String.valueOf(weight));
         text.setFill(Color.DARKRED); text.setStyle("-fx-font-weight: bold;");
+        Polygon arrow = null;
+        if (graph.isDirected()) { arrow = new Polygon(); arrow.setFill(Color.GRAY); }
         graphPane.getChildren().add(0, line); graphPane.getChildren().add(text);
-        edges.put(edgeKey, new EdgeUI(line, text));
-        updateAdjListDisplay();
+        if (arrow != null) graphPane.getChildren().add(arrow);
+        EdgeUI edgeUI = new EdgeUI(from, to, line, text, arrow);
+        layoutEdge(edgeUI);
+        edges.put(key, edgeUI);
     }
 
     public void removeEdge(int from, int to) {
         graph.delEdge(from, to);
-        int min = Math.min(from, to); int max = Math.max(from, to);
-        String key = min + "-" + max;
-        EdgeUI edgeUI = edges.remove(key);
-        if (edgeUI != null) graphPane.getChildren().removeAll(edgeUI.line, edgeUI.label);
+        EdgeUI edgeUI = edges.remove(edgeKey(from, to));
+        if (edgeUI != null) edgeUI.removeFrom(graphPane);
         updateAdjListDisplay();
     }
 
@@ -546,18 +636,8 @@ public class AdjListGraphUI {
             t.setX(x - 5); t.setY(y + 5);
             i++;
         }
-        for (Map.Entry<String, EdgeUI> entry : edges.entrySet()) {
-             String[] parts = entry.getKey().split("-");
-             int v1 = Integer.parseInt(parts[0]); int v2 = Integer.parseInt(parts[1]);
-             Circle c1 = nodes.get(v1); Circle c2 = nodes.get(v2);
-             if(c1!=null && c2!=null){
-                 entry.getValue().line.setStartX(c1.getCenterX());
-                 entry.getValue().line.setStartY(c1.getCenterY());
-                 entry.getValue().line.setEndX(c2.getCenterX());
-                 entry.getValue().line.setEndY(c2.getCenterY());
-                 entry.getValue().label.setX((c1.getCenterX()+c2.getCenterX())/2);
-                 entry.getValue().label.setY((c1.getCenterY()+c2.getCenterY())/2-5);
-             }
+        for (EdgeUI edgeUI : edges.values()) {
+             layoutEdge(edgeUI);
         }
     }
 
@@ -569,10 +649,9 @@ public class AdjListGraphUI {
             c.setRadius(20); 
         } 
         for (EdgeUI e : edges.values()) { 
-            e.line.setStroke(Color.GRAY); 
-            e.line.setStrokeWidth(2); 
+            e.paint(Color.GRAY, 2); 
         } 
     }
-    public void clearAllEdges() { graph.clearAllEdges(); for (EdgeUI e : edges.values()) { graphPane.getChildren().removeAll(e.line, e.label); } edges.clear(); updateAdjListDisplay(); }
-    public void generateRandomGraph() { clearAllEdges(); graph.generateRandomGraph(); int n = graph.verticesNumber(); for (int i = 0; i < n; i++) { Edge e = graph.firstEdge(i); while (e != null) { int from = e.getMfrom(); int to = e.getMto(); if (from < to) addEdge(from, to, e.getMweight()); e = graph.nextEdge(e); } } updateAdjListDisplay(); }
+    public void clearAllEdges() { graph.clearAllEdges(); for (EdgeUI e : edges.values()) { e.removeFrom(graphPane); } edges.clear(); updateAdjListDisplay(); }
+    public void generateRandomGraph() { clearAllEdges(); graph.generateRandomGraph(); int n = graph.verticesNumber(); for (int i = 0; i < n; i++) { Edge e = graph.firstEdge(i); while (e != null) { int from = e.getMfrom(); int to = e.getMto(); if (graph.isDirected() || from < to) addEdge(from, to, e.getMweight()); e = graph.nextEdge(e); } } updateAdjListDisplay(); }
 }
\ No newline at end of file
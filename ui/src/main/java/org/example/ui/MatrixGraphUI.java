@@ -14,11 +14,15 @@ import javafx.scene.text.Text;
 import javafx.scene.transform.Scale;
 import javafx.stage.FileChooser;
 import javafx.util.Duration;
+import org.example.core.CsrGraph;
 import org.example.core.Dijkstra;
+import org.example.core.GraphFile;
+import org.example.core.GraphTextLoader;
 import org.example.core.MatrixGraph;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -179,6 +183,11 @@ public class MatrixGraphUI {
     public void renderFromDSL(String dslText) {
         if (dslText == null || dslText.trim().isEmpty()) return;
         
+        // 单独一行 "directed" 表示按有向图处理 u -> v
+        boolean directed = dslText.lines().anyMatch(l -> l.trim().equalsIgnoreCase("directed"));
+        if (directed != graph.isDirected()) {
+            graph = new MatrixGraph(5, directed);
+        }
         clearInternalGraphState();
         
         String[] lines = dslText.split("\n");
@@ -204,9 +213,7 @@ public class MatrixGraphUI {
                         v = Integer.parseInt(rightPart);
                     }
                     
-                    while (graph.verticesNumber() <= Math.max(u, v)) {
-                        graph.addVertex();
-                    }
+                    ensureGraphVertex(Math.max(u, v));
                     
                     addVertex(u);
                     addVertex(v);
@@ -338,13 +345,18 @@ public class MatrixGraphUI {
         }
     }
 
-    public void addVertex(int id) {
-        if (nodes.containsKey(id)) return;
+    /** 确保图中存在编号为 id 的顶点，一次性补齐缺少的顶点 */
+    private void ensureGraphVertex(int id) {
         if (id >= graph.verticesNumber()) {
-            while (graph.verticesNumber() <= id) {
-                graph.addVertex();
-            }
+            graph.addVertices(id + 1 - graph.verticesNumber());
+        } else if (graph.isVertexRemoved(id)) {
+            graph.restoreVertex(id);
         }
+    }
+
+    public void addVertex(int id) {
+        if (nodes.containsKey(id)) return;
+        ensureGraphVertex(id);
         graph.setVertexExists(id, true);
         Circle circle = new Circle(20, Color.LIGHTBLUE);
         circle.setStroke(Color.BLACK);
@@ -411,6 +423,7 @@ public class MatrixGraphUI {
         if (circle != null) graphPane.getChildren().remove(circle);
         if (label != null) graphPane.getChildren().remove(label);
         graph.setVertexExists(id, false);
+        graph.removeVertex(id); // 图中一次删除所有关联边，下面只清理界面
         Iterator<Map.Entry<String, EdgeUI>> it = edges.entrySet().iterator();
         while (it.hasNext()) {
             Map.Entry<String, EdgeUI> entry = it.next();
@@ -419,7 +432,6 @@ public class MatrixGraphUI {
             int from = Integer.parseInt(parts[0]);
             int to = Integer.parseInt(parts[1]);
             if (from == id || to == id) {
-                graph.delEdge(from, to);
                 graphPane.getChildren().removeAll(entry.getValue().line, entry.getValue().label);
                 it.remove();
             }
@@ -429,6 +441,12 @@ public class MatrixGraphUI {
     }
 
     public void addEdge(int from, int to, int weight) {
+        putEdge(from, to, weight);
+        updateMatrixDisplay();
+    }
+
+    /** 加边并画出连线，不刷新矩阵显示，批量加载时使用 */
+    private void putEdge(int from, int to, int weight) {
         if (!nodes.containsKey(from)) addVertex(from);
         if (!nodes.containsKey(to)) addVertex(to);
         if (!nodes.containsKey(from) || !nodes.containsKey(to)) return;
@@ -450,7 +468,6 @@ public class MatrixGraphUI {
         graphPane.getChildren().add(0, line); 
         graphPane.getChildren().add(text);
         edges.put(edgeKey, new EdgeUI(line, text));
-        updateMatrixDisplay(); 
     }
 
     public void removeEdge(int from, int to) {
@@ -520,10 +537,19 @@ public class MatrixGraphUI {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("保存邻接矩阵图");
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Graph Files", "*.graph"));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Binary Graph Files", "*.hkg"));
         fileChooser.setInitialFileName("matrix_graph.graph");
         File file = fileChooser.showSaveDialog(root.getScene().getWindow());
         if (file == null) return;
+        if (file.getName().endsWith(".hkg")) {
+            saveBinaryGraph(file);
+            return;
+        }
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            if (graph.isDirected()) {
+                writer.write("directed");
+                writer.newLine();
+            }
             for (Map.Entry<Integer, Circle> entry : nodes.entrySet()) {
                 int id = entry.getKey();
                 Circle c = entry.getValue();
@@ -549,33 +575,39 @@ public class MatrixGraphUI {
     public void loadGraph() {
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle("打开图文件");
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Graph Files", "*.graph"));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Graph Files", "*.graph", "*.hkg"));
         File file = fileChooser.showOpenDialog(root.getScene().getWindow());
         if (file == null) return;
         clearInternalGraphState();
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 0) continue;
-                if (parts[0].equals("V")) {
-                    int id = Integer.parseInt(parts[1]);
-                    double x = Double.parseDouble(parts[2]);
-                    double y = Double.parseDouble(parts[3]);
-                    addVertex(id);
-                    Circle c = nodes.get(id);
-                    if (c != null) {
-                        c.setCenterX(x); c.setCenterY(y);
-                        Text t = nodeLabels.get(id);
-                        if(t != null) { t.setX(x-6); t.setY(y+6); }
+        try {
+            if (file.getName().endsWith(".hkg")) {
+                loadBinaryGraph(file);
+                updateMatrixDisplay();
+                System.out.println("加载成功");
+                return;
+            }
+            // 逐条回调，边只更新矩阵和连线，全部读完后再刷新一次矩阵显示；没有 "directed" 行的文件是无向图
+            if (graph.isDirected()) {
+                replaceGraph(false);
+            }
+            GraphTextLoader.parse(file.toPath(), new GraphTextLoader.RecordHandler() {
+                @Override
+                public void vertex(int id, double x, double y) {
+                    placeVertex(id, x, y);
+                }
+
+                @Override
+                public void edge(int from, int to, int weight) {
+                    putEdge(from, to, weight);
+                }
+
+                @Override
+                public void directed() {
+                    if (!graph.isDirected()) {
+                        replaceGraph(true);
                     }
-                } else if (parts[0].equals("E")) {
-                    int from = Integer.parseInt(parts[1]);
-                    int to = Integer.parseInt(parts[2]);
-                    int weight = Integer.parseInt(parts[3]);
-                    addEdge(from, to, weight);
                 }
-            }
+            });
             updateMatrixDisplay();
             System.out.println("加载成功");
         } catch (Exception ex) {
@@ -583,4 +615,61 @@ public class MatrixGraphUI {
             matrixDisplay.setText("加载失败: " + ex.getMessage());
         }
     }
+
+    /** 换成另一种方向的空矩阵，只保留界面上已有的顶点，加载文件时在读边之前调用 */
+    private void replaceGraph(boolean directed) {
+        graph = new MatrixGraph(Math.max(5, graph.verticesNumber()), directed);
+        int n = graph.verticesNumber();
+        for (int i = 0; i < n; i++) graph.setVertexExists(i, nodes.containsKey(i));
+    }
+
+    private void placeVertex(int id, double x, double y) {
+        addVertex(id);
+        Circle c = nodes.get(id);
+        if (c != null) {
+            c.setCenterX(x); c.setCenterY(y);
+            Text t = nodeLabels.get(id);
+            if(t != null) { t.setX(x-6); t.setY(y+6); }
+        }
+    }
+
+    /** 二进制格式：坐标为 NaN 的顶点没有界面节点，由关联的边补上 */
+    private void saveBinaryGraph(File file) {
+        int n = graph.verticesNumber();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        Arrays.fill(xs, Double.NaN);
+        Arrays.fill(ys, Double.NaN);
+        for (Map.Entry<Integer, Circle> entry : nodes.entrySet()) {
+            int id = entry.getKey();
+            Circle c = entry.getValue();
+            if (id < n) {
+                xs[id] = c.getCenterX();
+                ys[id] = c.getCenterY();
+            }
+        }
+        try {
+            GraphFile.write(graph, xs, ys, file.toPath());
+            System.out.println("保存成功");
+        } catch (IOException ex) { ex.printStackTrace(); }
+    }
+
+    private void loadBinaryGraph(File file) throws IOException {
+        CsrGraph loaded = GraphFile.readCsr(file.toPath());
+        double[][] xy = GraphFile.readCoordinates(file.toPath());
+        int n = loaded.verticesNumber();
+        // 按文件中的方向重建矩阵，否则当前是无向图时有向弧会被镜像
+        if (loaded.isDirected() != graph.isDirected()) {
+            replaceGraph(loaded.isDirected());
+        }
+        for (int v = 0; v < n; v++) {
+            if (xy != null && !loaded.isVertexRemoved(v) && !Double.isNaN(xy[0][v])) {
+                placeVertex(v, xy[0][v], xy[1][v]);
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            final int from = u;
+            loaded.forEachNeighbor(u, (to, weight) -> putEdge(from, to, weight));
+        }
+    }
 }
\ No newline at end of file